@@ -1,22 +1,81 @@
 package com.reliaquest.api.aspect;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times controller calls ({@code employee.api.requests}) and calls to the mock server through
+ * {@code EmployeeApiClient} ({@code employee.upstream.requests}), tagged by class, method and exception, with
+ * p50/p95/p99 and a percentile histogram for Prometheus. The per-call log line is off unless
+ * {@code employee.metrics.log-execution-time} is set.
+ */
 @Aspect
 @Component
 @Slf4j
 public class ExecutionTimeLoggerAspect {
 
+    public static final String API_TIMER = "employee.api.requests";
+    public static final String UPSTREAM_TIMER = "employee.upstream.requests";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean logExecutionTime;
+
+    // Timer.builder(...).register(...) allocates an id per call, so timers are looked up by signature instead
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public ExecutionTimeLoggerAspect(MeterRegistry meterRegistry,
+                                     @Value("${employee.metrics.log-execution-time:false}") boolean logExecutionTime) {
+        this.meterRegistry = meterRegistry;
+        this.logExecutionTime = logExecutionTime;
+    }
+
     @Around("execution(* com.reliaquest.api.controller..*(..))")
     public Object logExecutionTime(ProceedingJoinPoint joinPoint) throws Throwable {
-        long startTime = System.currentTimeMillis();
-        Object result = joinPoint.proceed();
-        long endTime = System.currentTimeMillis();
-        log.info("Execution time of {}.{}: {} seconds", joinPoint.getSignature().getDeclaringType().getSimpleName(), joinPoint.getSignature().getName(), (endTime - startTime) / 1000.0);
-        return result;
+        return time(API_TIMER, joinPoint);
+    }
+
+    // runs inside the circuit breaker, so only real attempts are timed, not fallbacks
+    @Around("execution(public * com.reliaquest.api.service.EmployeeApiClient.call*(..))")
+    public Object timeUpstreamCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(UPSTREAM_TIMER, joinPoint);
+    }
+
+    private Object time(String timerName, ProceedingJoinPoint joinPoint) throws Throwable {
+        long startTime = System.nanoTime();
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            exception = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            long elapsed = System.nanoTime() - startTime;
+            String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+            String methodName = joinPoint.getSignature().getName();
+            timer(timerName, className, methodName, exception).record(elapsed, TimeUnit.NANOSECONDS);
+            if (logExecutionTime) {
+                log.info("Execution time of {}.{}: {} ms", className, methodName, elapsed / 1_000_000.0);
+            }
+        }
+    }
+
+    private Timer timer(String timerName, String className, String methodName, String exception) {
+        return timers.computeIfAbsent(timerName + ':' + className + '.' + methodName + ':' + exception, key -> Timer.builder(timerName)
+                .tag("class", className)
+                .tag("method", methodName)
+                .tag("exception", exception)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
     }
 }
@@ -0,0 +1,309 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.model.Employee;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of single-employee lookups by id, in front of {@code GET /api/v1/employee/{id}}.
+ * <ul>
+ *     <li>found employees are kept for {@code ttl}, ids upstream reported as unknown for {@code negative-ttl}</li>
+ *     <li>hits don't lock: entries live in a {@link ConcurrentHashMap} and each one carries the tick of its last use</li>
+ *     <li>at {@code max-size} the least recently used of a sample of entries is the eviction candidate, but a newcomer
+ *     only replaces it if a frequency sketch has seen the newcomer more often (TinyLFU admission), so a scan of one-off
+ *     ids can't flush the hot ones; only admissions take the lock</li>
+ *     <li>local writes go through {@link #put} and {@link #invalidate}; a load that was in flight across a write to
+ *     the same id is returned to its caller but not cached. Writes are remembered per id for a minute, and a load slower
+ *     than that isn't cached either</li>
+ *     <li>every caller gets its own copy of a cached employee, so a caller mutating it can't change what others see</li>
+ * </ul>
+ */
+@Component
+public class EmployeeLookupCache {
+
+    private static final int EVICTION_SAMPLE = 8;
+
+    private static final Duration WRITE_MEMORY = Duration.ofMinutes(1);
+
+    private final int maxSize;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final Clock clock;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final FrequencySketch sketch;
+    private final AtomicLong ticks = new AtomicLong();
+    // sequence of local writes; each one is recorded in recentWrites (or clearedAt) before it reaches the map, so a
+    // load can tell whether it overlapped a write to its id
+    private final AtomicLong writes = new AtomicLong();
+    private final ConcurrentHashMap<String, Write> recentWrites = new ConcurrentHashMap<>();
+    private final AtomicLong clearedAt = new AtomicLong();
+    // recentWrites is swept for writes older than WRITE_MEMORY once it grows past this
+    private volatile int sweepAt;
+
+    // guards admissions and evictionHand; readers and invalidations never take it
+    private final Object admissionLock = new Object();
+    private Iterator<Map.Entry<String, Entry>> evictionHand;
+
+    private final Counter hits;
+    private final Counter negativeHits;
+    private final Counter misses;
+
+    @Autowired
+    public EmployeeLookupCache(@Value("${employee.cache.by-id.max-size:10000}") int maxSize,
+                               @Value("${employee.cache.by-id.ttl:30s}") Duration ttl,
+                               @Value("${employee.cache.by-id.negative-ttl:5s}") Duration negativeTtl,
+                               MeterRegistry meterRegistry) {
+        this(maxSize, ttl, negativeTtl, meterRegistry, Clock.systemUTC());
+    }
+
+    public EmployeeLookupCache(int maxSize, Duration ttl, Duration negativeTtl, MeterRegistry meterRegistry, Clock clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("employee.cache.by-id.max-size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.clock = clock;
+        this.sketch = new FrequencySketch(maxSize);
+        this.sweepAt = maxSize;
+
+        String lookups = "employee.cache.by-id.lookups";
+        this.hits = Counter.builder(lookups).tag("result", "hit").register(meterRegistry);
+        this.negativeHits = Counter.builder(lookups).tag("result", "negative_hit").register(meterRegistry);
+        this.misses = Counter.builder(lookups).tag("result", "miss").register(meterRegistry);
+        Gauge.builder("employee.cache.by-id.size", this, EmployeeLookupCache::size).register(meterRegistry);
+    }
+
+    /**
+     * A copy of the cached employee, or the loader's answer on a miss. A cached or freshly loaded "not found" is thrown
+     * as {@link EmployeeNotFoundException}; any other loader failure passes through uncached.
+     */
+    public Employee get(String id, Function<String, Employee> loader) {
+        sketch.increment(id);
+        Load load = new Load(writes.get(), clock.instant());
+        Entry entry = entries.get(id);
+        if (entry != null && !clock.instant().isBefore(entry.expiresAt)) {
+            entries.remove(id, entry);
+            entry = null;
+        }
+        if (entry != null) {
+            entry.lastUsed = ticks.incrementAndGet();
+            if (entry.employee == null) {
+                negativeHits.increment();
+                throw new EmployeeNotFoundException(String.format("Employee with ID %s not found.", id));
+            }
+            hits.increment();
+            return copy(entry.employee);
+        }
+
+        misses.increment();
+        try {
+            Employee employee = loader.apply(id);
+            if (employee != null) {
+                admit(id, new Entry(copy(employee), clock.instant().plus(ttl)), load);
+            }
+            return employee;
+        } catch (EmployeeNotFoundException ex) {
+            admit(id, new Entry(null, clock.instant().plus(negativeTtl)), load);
+            throw ex;
+        }
+    }
+
+    /**
+     * Caches an employee this service just wrote, replacing any entry (including a negative one) for its id.
+     */
+    public void put(Employee employee) {
+        recordWrite(employee.getId());
+        Entry entry = new Entry(copy(employee), clock.instant().plus(ttl));
+        synchronized (admissionLock) {
+            if (!entries.containsKey(employee.getId()) && entries.size() >= maxSize) {
+                Map.Entry<String, Entry> victim = evictionCandidate();
+                if (victim != null) {
+                    entries.remove(victim.getKey(), victim.getValue());
+                }
+            }
+            entries.put(employee.getId(), entry);
+        }
+    }
+
+    public void invalidate(String id) {
+        recordWrite(id);
+        entries.remove(id);
+    }
+
+    // for when upstream changed ids we can't name; every load in flight is dropped
+    public void invalidateAll() {
+        clearedAt.set(writes.incrementAndGet());
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void recordWrite(String id) {
+        Instant now = clock.instant();
+        recentWrites.put(id, new Write(writes.incrementAndGet(), now));
+        if (recentWrites.size() > sweepAt) {
+            Instant forgotten = now.minus(WRITE_MEMORY);
+            recentWrites.values().removeIf(write -> write.at().isBefore(forgotten));
+            sweepAt = Math.max(maxSize, 2 * recentWrites.size());
+        }
+    }
+
+    // a local write to this id landed while we were loading, so what we loaded may predate it; a load older than
+    // WRITE_MEMORY may have overlapped a write that has since been forgotten
+    private boolean overlappedWrite(String id, Load load) {
+        if (clearedAt.get() > load.writesBefore() || Duration.between(load.startedAt(), clock.instant()).compareTo(WRITE_MEMORY) >= 0) {
+            return true;
+        }
+        Write write = recentWrites.get(id);
+        return write != null && write.sequence() > load.writesBefore();
+    }
+
+    private void admit(String id, Entry entry, Load load) {
+        synchronized (admissionLock) {
+            if (overlappedWrite(id, load)) {
+                return;
+            }
+            if (!entries.containsKey(id) && entries.size() >= maxSize) {
+                Map.Entry<String, Entry> victim = evictionCandidate();
+                if (victim != null) {
+                    boolean victimExpired = !clock.instant().isBefore(victim.getValue().expiresAt);
+                    if (!victimExpired && sketch.frequency(id) <= sketch.frequency(victim.getKey())) {
+                        return;
+                    }
+                    entries.remove(victim.getKey(), victim.getValue());
+                }
+            }
+            // a write to this id that raced the check above is recorded before it touches the map, and its map update
+            // is ordered after ours, so it still wins
+            entries.compute(id, (key, existing) -> overlappedWrite(id, load) ? existing : entry);
+        }
+    }
+
+    // the least recently used of the next EVICTION_SAMPLE entries under a hand that sweeps the map; caller holds
+    // admissionLock
+    private Map.Entry<String, Entry> evictionCandidate() {
+        Map.Entry<String, Entry> candidate = null;
+        boolean wrapped = false;
+        for (int sampled = 0; sampled < EVICTION_SAMPLE; ) {
+            if (evictionHand == null || !evictionHand.hasNext()) {
+                if (wrapped) {
+                    break; // fewer entries than the sample
+                }
+                evictionHand = entries.entrySet().iterator();
+                wrapped = true;
+                if (!evictionHand.hasNext()) {
+                    break;
+                }
+            }
+            Map.Entry<String, Entry> next = evictionHand.next();
+            if (candidate == null || next.getValue().lastUsed < candidate.getValue().lastUsed) {
+                candidate = next;
+            }
+            sampled++;
+        }
+        return candidate;
+    }
+
+    private static Employee copy(Employee employee) {
+        return new Employee(employee.getId(), employee.getName(), employee.getSalary(), employee.getAge(), employee.getTitle(), employee.getEmail());
+    }
+
+    private record Write(long sequence, Instant at) {
+    }
+
+    private record Load(long writesBefore, Instant startedAt) {
+    }
+
+    private final class Entry {
+
+        final Employee employee;
+        final Instant expiresAt;
+        // racing hits may overwrite each other's tick; an approximate recency is all eviction needs
+        volatile long lastUsed = ticks.incrementAndGet();
+
+        Entry(Employee employee, Instant expiresAt) {
+            this.employee = employee;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Count-min sketch of recent lookup frequency: four saturating counters per key, of which the smallest is the
+     * estimate. Every counter is halved once the sketch has taken ten increments per slot of cache capacity, so old
+     * popularity fades. Counters are updated without locking: an increment lost to a racing one, or to a racing
+     * halving, only makes an estimate slightly low. The halving itself is claimed with a CAS on the addition count, so
+     * one thread runs it per reset and the count can't be halved twice.
+     */
+    private static final class FrequencySketch {
+
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+        private final byte[] counters;
+        private final int mask;
+        private final int sampleSize;
+        private final AtomicInteger additions = new AtomicInteger();
+
+        FrequencySketch(int capacity) {
+            int width = Integer.highestOneBit(Math.max(16, capacity * 4 - 1)) << 1;
+            this.counters = new byte[width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * capacity;
+        }
+
+        void increment(String key) {
+            int hash = spread(key.hashCode());
+            for (int seed : SEEDS) {
+                int slot = index(hash, seed);
+                if (counters[slot] < MAX_COUNT) {
+                    counters[slot]++;
+                }
+            }
+            int added = additions.incrementAndGet();
+            if (added >= sampleSize && additions.compareAndSet(added, added / 2)) {
+                for (int i = 0; i < counters.length; i++) {
+                    counters[i] >>= 1;
+                }
+            }
+        }
+
+        int frequency(String key) {
+            int hash = spread(key.hashCode());
+            int min = MAX_COUNT;
+            for (int seed : SEEDS) {
+                min = Math.min(min, counters[index(hash, seed)]);
+            }
+            return min;
+        }
+
+        private int index(int hash, int seed) {
+            int h = hash * seed;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private static int spread(int hash) {
+            hash ^= hash >>> 16;
+            hash *= 0x45D9F3B;
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
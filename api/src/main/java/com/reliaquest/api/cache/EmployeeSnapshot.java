@@ -0,0 +1,278 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.index.EmployeeColumns;
+import com.reliaquest.api.index.EmployeeNameIndex;
+import com.reliaquest.api.index.EmployeeQueryIndex;
+import com.reliaquest.api.index.ParallelScan;
+import com.reliaquest.api.index.SalaryAggregates;
+import com.reliaquest.api.index.SalaryDistribution;
+import com.reliaquest.api.index.TopK;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeChanges;
+import com.reliaquest.api.model.EmployeeQuery;
+import com.reliaquest.api.model.SalaryStatistics;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable view of the upstream employee list as of {@link #getLoadedAt()}, together with the aggregates derived from it.
+ * The employees are held column-wise in an {@link EmployeeColumns}; {@link #getEmployees()} materializes them on access.
+ * Local writes produce a new snapshot instead of mutating this one, so readers never need to lock.
+ * {@link #getETag()} is derived from the content, so equal lists get equal tags however they were arrived at.
+ * {@link #getVersion()} is upstream's change-feed version the snapshot is known to be caught up with, if any.
+ * Aggregates and name searches over large snapshots run on the {@link ParallelScan} the snapshot was built with.
+ * The sorted indexes behind {@link #query} are built on the first query and carried over local writes until the
+ * columns compact; the salary sketches behind {@link #getSalaryStatistics()} are built on first use and updated by
+ * local writes from then on.
+ */
+public final class EmployeeSnapshot {
+
+    // past this many changes, rebuilding once is cheaper than copying the indexes per change
+    private static final int INCREMENTAL_CHANGES = 16;
+
+    private final EmployeeColumns columns;
+    private final Instant loadedAt;
+    private final SalaryAggregates salaryAggregates;
+    private final EmployeeNameIndex nameIndex;
+    private final String version;
+    // loaded from upstream at version and not written to since
+    private final boolean pristine;
+    private final ParallelScan scan;
+    private volatile String etag;
+    private volatile EmployeeQueryIndex queryIndex;
+    private volatile SalaryDistribution salaryDistribution;
+
+    public EmployeeSnapshot(List<Employee> employees, Instant loadedAt) {
+        this(employees, loadedAt, null);
+    }
+
+    public EmployeeSnapshot(List<Employee> employees, Instant loadedAt, String version) {
+        this(employees, loadedAt, version, ParallelScan.SEQUENTIAL);
+    }
+
+    public EmployeeSnapshot(List<Employee> employees, Instant loadedAt, String version, ParallelScan scan) {
+        this(EmployeeColumns.of(employees), loadedAt, version, true, scan);
+    }
+
+    private EmployeeSnapshot(EmployeeColumns columns, Instant loadedAt, String version, boolean pristine, ParallelScan scan) {
+        this(columns, loadedAt, SalaryAggregates.of(columns, SalaryAggregates.DEFAULT_TOP_K, scan), EmployeeNameIndex.of(columns, scan), version, pristine, scan);
+    }
+
+    private EmployeeSnapshot(EmployeeColumns columns, Instant loadedAt, SalaryAggregates salaryAggregates, EmployeeNameIndex nameIndex, String version, boolean pristine, ParallelScan scan) {
+        this.columns = columns;
+        this.loadedAt = loadedAt;
+        this.salaryAggregates = salaryAggregates;
+        this.nameIndex = nameIndex;
+        this.version = version;
+        this.pristine = pristine;
+        this.scan = scan;
+    }
+
+    public List<Employee> getEmployees() {
+        return columns.asList();
+    }
+
+    public EmployeeColumns getColumns() {
+        return columns;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    public SalaryAggregates getSalaryAggregates() {
+        return salaryAggregates;
+    }
+
+    public EmployeeNameIndex getNameIndex() {
+        return nameIndex;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public Optional<Employee> findById(String id) {
+        int ordinal = columns.ordinalOf(id);
+        return ordinal < 0 ? Optional.empty() : Optional.of(columns.employee(ordinal));
+    }
+
+    /**
+     * Ids of the employees named {@code name}, ignoring case the way upstream matches names when deleting.
+     */
+    public List<String> idsNamed(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        // null for names too short for the trigram index: check every row then
+        int[] candidates = nameIndex.candidates(name);
+        int count = candidates == null ? columns.slots() : candidates.length;
+        List<String> ids = new ArrayList<>(1);
+        for (int i = 0; i < count; i++) {
+            int ordinal = candidates == null ? i : candidates[i];
+            String candidate = columns.isLive(ordinal) ? columns.name(ordinal) : null;
+            if (candidate != null && candidate.toLowerCase(Locale.ROOT).equals(key)) {
+                ids.add(columns.id(ordinal));
+            }
+        }
+        return ids;
+    }
+
+    public String getETag() {
+        String tag = etag;
+        if (tag == null) {
+            long hash = columns.size();
+            for (int i = 0; i < columns.slots(); i++) {
+                if (columns.isLive(i)) {
+                    hash = hash * 1_000_003L + Objects.hash(columns.id(i), columns.name(i), columns.salary(i), columns.age(i), columns.title(i), columns.email(i));
+                }
+            }
+            tag = "\"" + Long.toHexString(hash) + "\"";
+            etag = tag;
+        }
+        return tag;
+    }
+
+    public List<Employee> query(EmployeeQuery query) {
+        EmployeeQueryIndex index = queryIndex;
+        if (index == null || index.isStaleFor(columns)) {
+            index = EmployeeQueryIndex.of(columns);
+            queryIndex = index;
+        }
+        return index.query(columns, nameIndex, query);
+    }
+
+    public SalaryStatistics getSalaryStatistics() {
+        SalaryDistribution distribution = salaryDistribution;
+        if (distribution == null) {
+            distribution = SalaryDistribution.of(columns);
+            salaryDistribution = distribution;
+        }
+        return distribution.summarize();
+    }
+
+    /**
+     * The first {@code k} employees in {@code order}, ties in list order. The highest salaries, up to the precomputed
+     * top earners, are served from the salary aggregates; anything else is a bounded-heap selection over the columns.
+     */
+    public List<Employee> ranked(EmployeeQuery.Sort order, int k) {
+        List<Employee> topEarners = salaryAggregates.getTopEarners();
+        if (order == EmployeeQuery.Sort.SALARY_DESC && (k <= topEarners.size() || topEarners.size() == columns.size())) {
+            return topEarners.subList(0, Math.min(k, topEarners.size()));
+        }
+        return Arrays.stream(TopK.select(columns, order, k, scan)).mapToObj(columns::employee).toList();
+    }
+
+    public List<String> rankedNames(EmployeeQuery.Sort order, int k) {
+        List<String> topEarnerNames = salaryAggregates.getTopEarnerNames();
+        if (order == EmployeeQuery.Sort.SALARY_DESC && (k <= topEarnerNames.size() || topEarnerNames.size() == columns.size())) {
+            return k >= topEarnerNames.size() ? topEarnerNames : topEarnerNames.subList(0, k);
+        }
+        return Arrays.stream(TopK.select(columns, order, k, scan)).mapToObj(columns::name).toList();
+    }
+
+    /**
+     * True if this snapshot holds exactly upstream's list at {@code version}: loaded at it, e.g. before an upstream 304
+     * confirmed it again, and not written to or caught up since.
+     */
+    public boolean isUnchangedSince(String version) {
+        return pristine && version != null && version.equals(this.version);
+    }
+
+    // same content and derived data, freshly confirmed by upstream
+    public EmployeeSnapshot reloadedAt(Instant reloadedAt) {
+        EmployeeSnapshot reloaded = new EmployeeSnapshot(columns, reloadedAt, salaryAggregates, nameIndex, version, pristine, scan);
+        reloaded.etag = etag;
+        reloaded.queryIndex = queryIndex;
+        reloaded.salaryDistribution = salaryDistribution;
+        return reloaded;
+    }
+
+    // adding an id already present changes nothing, so a write can be replayed onto a list that already has it
+    public EmployeeSnapshot withAdded(Employee employee) {
+        if (contains(employee.getId())) {
+            return this;
+        }
+        EmployeeColumns updated = columns.withAdded(employee);
+        EmployeeSnapshot added = new EmployeeSnapshot(updated, loadedAt, salaryAggregates.withAdded(employee), nameIndex.withAdded(updated), version, false, scan);
+        added.queryIndex = queryIndex;
+        SalaryDistribution distribution = salaryDistribution;
+        added.salaryDistribution = distribution == null ? null : distribution.withAdded(employee);
+        return added;
+    }
+
+    public EmployeeSnapshot withRemoved(String id) {
+        int ordinal = columns.ordinalOf(id);
+        if (ordinal < 0) {
+            return this;
+        }
+        Employee removed = columns.employee(ordinal);
+        EmployeeColumns updated = columns.withRemoved(ordinal);
+        EmployeeSnapshot remaining = new EmployeeSnapshot(updated, loadedAt, salaryAggregates.withRemoved(removed, updated), nameIndex.withRemoved(updated, ordinal), version, false, scan);
+        // a removal that compacted renumbered the rows the query index points at
+        remaining.queryIndex = updated.slots() == columns.slots() ? queryIndex : null;
+        SalaryDistribution distribution = salaryDistribution;
+        remaining.salaryDistribution = distribution == null ? null : distribution.withRemoved(removed, updated);
+        return remaining;
+    }
+
+    // bulk writes rebuild once per batch instead of copying the indexes once per employee
+    public EmployeeSnapshot withAddedAll(List<Employee> added) {
+        List<Employee> missing = added.stream().filter(employee -> !contains(employee.getId())).toList();
+        return missing.isEmpty() ? this : new EmployeeSnapshot(columns.withAddedAll(missing), loadedAt, version, false, scan);
+    }
+
+    private boolean contains(String id) {
+        return columns.ordinalOf(id) >= 0;
+    }
+
+    public EmployeeSnapshot withRemovedAll(Set<String> ids) {
+        EmployeeColumns updated = columns.withRemovedAll(ids);
+        return updated == columns ? this : new EmployeeSnapshot(updated, loadedAt, version, false, scan);
+    }
+
+    /**
+     * Applies upstream's changes since {@link #getVersion()} and moves the snapshot to their version. Replays are
+     * harmless: a create of an id already present, or a delete of one that isn't, changes nothing, so writes made
+     * through this api and already applied locally can come back through the feed.
+     */
+    public EmployeeSnapshot withChanges(EmployeeChanges changes, Instant caughtUpAt) {
+        // upstream always assigns ids; a change without one can't be matched against anything
+        List<EmployeeChanges.Change> applicable = changes.changes().stream().filter(change -> change.employee().getId() != null).toList();
+        if (applicable.size() > INCREMENTAL_CHANGES) {
+            Map<String, Employee> added = new LinkedHashMap<>();
+            Set<String> removed = new HashSet<>();
+            for (EmployeeChanges.Change change : applicable) {
+                String id = change.employee().getId();
+                if (change.type() == EmployeeChanges.Type.DELETED) {
+                    added.remove(id);
+                    removed.add(id);
+                } else if (columns.ordinalOf(id) < 0) {
+                    added.putIfAbsent(id, change.employee());
+                }
+            }
+            return new EmployeeSnapshot(columns.withRemovedAll(removed).withAddedAll(added.values()), caughtUpAt, changes.version(), false, scan);
+        }
+        EmployeeSnapshot updated = this;
+        for (EmployeeChanges.Change change : applicable) {
+            String id = change.employee().getId();
+            if (change.type() == EmployeeChanges.Type.DELETED) {
+                updated = updated.withRemoved(id);
+            } else if (updated.columns.ordinalOf(id) < 0) {
+                updated = updated.withAdded(change.employee());
+            }
+        }
+        EmployeeSnapshot caughtUp = new EmployeeSnapshot(updated.columns, caughtUpAt, updated.salaryAggregates, updated.nameIndex, changes.version(), false, scan);
+        caughtUp.queryIndex = updated.queryIndex;
+        caughtUp.salaryDistribution = updated.salaryDistribution;
+        return caughtUp;
+    }
+}
@@ -0,0 +1,288 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.client.AdaptiveRateLimiter;
+import com.reliaquest.api.exception.EmployeeServiceUnavailableException;
+import com.reliaquest.api.index.ParallelScan;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeChanges;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-process cache of the full employee list.
+ * <ul>
+ *     <li>younger than {@code refresh-ahead}: served as is</li>
+ *     <li>between {@code refresh-ahead} and {@code ttl}: served as is, reloaded on a background thread</li>
+ *     <li>older than {@code ttl}: reloaded on the calling thread; if upstream is rate limiting us or the circuit is
+ *     open, the old snapshot keeps being served until it is older than {@code max-stale}</li>
+ * </ul>
+ * Reloads that have a snapshot to fall back on run at background priority with the upstream rate limiter. A snapshot
+ * that knows its change-feed version is caught up from upstream's change feed instead of reloading the whole list; the
+ * list is only reloaded when the feed can't reach back that far. Local writes made while a load is in flight are kept:
+ * a catch-up is applied to whatever snapshot is current by then, and a reload replays the writes made since it started.
+ */
+@Slf4j
+@Component
+public class EmployeeSnapshotCache {
+
+    private final Duration ttl;
+    private final Duration refreshAhead;
+    private final Duration maxStale;
+    private final Clock clock;
+    private final ParallelScan scan;
+
+    private final AtomicReference<EmployeeSnapshot> current = new AtomicReference<>();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    // orders local writes against installing a reloaded list; readers never take it
+    private final Object writeLock = new Object();
+    // local writes made since the list reload in flight started, replayed onto what it loaded; null when none is
+    private List<UnaryOperator<EmployeeSnapshot>> writesDuringReload;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "employee-snapshot-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public EmployeeSnapshotCache(@Value("${employee.cache.ttl:30s}") Duration ttl,
+                                 @Value("${employee.cache.refresh-ahead:20s}") Duration refreshAhead,
+                                 @Value("${employee.cache.max-stale:10m}") Duration maxStale,
+                                 ParallelScan scan) {
+        this(ttl, refreshAhead, maxStale, Clock.systemUTC(), scan);
+    }
+
+    public EmployeeSnapshotCache(Duration ttl, Duration refreshAhead, Duration maxStale) {
+        this(ttl, refreshAhead, maxStale, Clock.systemUTC(), ParallelScan.SEQUENTIAL);
+    }
+
+    public EmployeeSnapshotCache(Duration ttl, Duration refreshAhead, Duration maxStale, Clock clock) {
+        this(ttl, refreshAhead, maxStale, clock, ParallelScan.SEQUENTIAL);
+    }
+
+    public EmployeeSnapshotCache(Duration ttl, Duration refreshAhead, Duration maxStale, Clock clock, ParallelScan scan) {
+        if (refreshAhead.compareTo(ttl) > 0) {
+            throw new IllegalArgumentException("employee.cache.refresh-ahead must not exceed employee.cache.ttl");
+        }
+        this.ttl = ttl;
+        this.refreshAhead = refreshAhead;
+        this.maxStale = maxStale;
+        this.clock = clock;
+        this.scan = scan;
+    }
+
+    // full reloads only
+    public EmployeeSnapshot get(Supplier<List<Employee>> loader) {
+        return get(new Loader() {
+            @Override
+            public List<Employee> loadAll() {
+                return loader.get();
+            }
+
+            @Override
+            public String versionOf(List<Employee> employees) {
+                return null;
+            }
+
+            @Override
+            public Optional<EmployeeChanges> changesSince(String version) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    public EmployeeSnapshot get(Loader loader) {
+        EmployeeSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            Duration age = ageOf(snapshot);
+            if (age.compareTo(ttl) < 0) {
+                if (age.compareTo(refreshAhead) >= 0) {
+                    refreshAsync(loader);
+                }
+                return snapshot;
+            }
+        }
+        return loadOrServeStale(loader);
+    }
+
+    /**
+     * The current snapshot if it is younger than {@code ttl}; never loads or refreshes.
+     */
+    public Optional<EmployeeSnapshot> getIfFresh() {
+        EmployeeSnapshot snapshot = current.get();
+        return snapshot != null && ageOf(snapshot).compareTo(ttl) < 0 ? Optional.of(snapshot) : Optional.empty();
+    }
+
+    /**
+     * Applies a local write (create/delete) to the cached snapshot so readers see it without an upstream reload.
+     */
+    public void update(UnaryOperator<EmployeeSnapshot> change) {
+        synchronized (writeLock) {
+            current.updateAndGet(snapshot -> snapshot == null ? null : change.apply(snapshot));
+            if (writesDuringReload != null) {
+                writesDuringReload.add(change);
+            }
+        }
+    }
+
+    /**
+     * Catches the snapshot up with upstream now, whatever its age: from the change feed if it reaches back far enough,
+     * else by reloading the list. For writes whose effect has to be read back from upstream.
+     */
+    public EmployeeSnapshot refresh(Loader loader) {
+        loadLock.lock();
+        try {
+            return load(loader);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    public void invalidate() {
+        synchronized (writeLock) {
+            current.set(null);
+        }
+    }
+
+    private EmployeeSnapshot loadOrServeStale(Loader loader) {
+        loadLock.lock();
+        try {
+            // another caller may have reloaded while we were waiting for the lock
+            EmployeeSnapshot snapshot = current.get();
+            if (snapshot != null && ageOf(snapshot).compareTo(ttl) < 0) {
+                return snapshot;
+            }
+            try {
+                // with a usable stale snapshot to fall back on, the reload shouldn't compete with interactive calls
+                if (snapshot != null && ageOf(snapshot).compareTo(maxStale) < 0) {
+                    return AdaptiveRateLimiter.inBackground(() -> load(loader));
+                }
+                return load(loader);
+            } catch (EmployeeServiceUnavailableException ex) {
+                if (snapshot != null && ageOf(snapshot).compareTo(maxStale) < 0) {
+                    log.warn("Employee service unavailable, serving snapshot loaded at {}: {}", snapshot.getLoadedAt(), ex.getMessage());
+                    return snapshot;
+                }
+                throw ex;
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void refreshAsync(Loader loader) {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refresher.execute(() -> {
+            try {
+                if (loadLock.tryLock()) {
+                    try {
+                        AdaptiveRateLimiter.inBackground(() -> load(loader));
+                    } finally {
+                        loadLock.unlock();
+                    }
+                }
+            } catch (Exception ex) {
+                log.warn("Background refresh of employee snapshot failed: {}", ex.getMessage());
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+
+    // callers hold loadLock, so at most one load runs at a time
+    private EmployeeSnapshot load(Loader loader) {
+        EmployeeSnapshot previous = current.get();
+        if (previous != null && previous.getVersion() != null) {
+            Optional<EmployeeChanges> changes = loader.changesSince(previous.getVersion());
+            if (changes.isPresent()) {
+                // applied to whatever is current by now: local writes made meanwhile stay, and replaying one the feed
+                // also has changes nothing
+                EmployeeSnapshot snapshot = current.updateAndGet(latest -> (latest == null ? previous : latest).withChanges(changes.get(), clock.instant()));
+                log.debug("Caught employee snapshot up with {} changes to version {}", changes.get().changes().size(), snapshot.getVersion());
+                return snapshot;
+            }
+            log.debug("Change feed can't reach back to version {}, reloading the employee list", previous.getVersion());
+        }
+        return reload(loader);
+    }
+
+    private EmployeeSnapshot reload(Loader loader) {
+        synchronized (writeLock) {
+            writesDuringReload = new ArrayList<>();
+        }
+        try {
+            List<Employee> employees = loader.loadAll();
+            String version = loader.versionOf(employees);
+            EmployeeSnapshot previous = current.get();
+            // built outside the lock; only a write landing from here on makes it rebuild under it
+            EmployeeSnapshot loaded = previous != null && previous.isUnchangedSince(version) ? null : new EmployeeSnapshot(employees, clock.instant(), version, scan);
+            synchronized (writeLock) {
+                EmployeeSnapshot latest = current.get();
+                EmployeeSnapshot snapshot;
+                if (latest != null && latest.isUnchangedSince(version)) {
+                    // upstream answered 304 (or sent the same version again) and nothing was written locally since:
+                    // keep the columns and indexes, just restart the clock
+                    snapshot = latest.reloadedAt(clock.instant());
+                } else {
+                    snapshot = loaded != null ? loaded : new EmployeeSnapshot(employees, clock.instant(), version, scan);
+                    // the list may predate these writes; replaying one it already has changes nothing
+                    for (UnaryOperator<EmployeeSnapshot> write : writesDuringReload) {
+                        snapshot = write.apply(snapshot);
+                    }
+                }
+                current.set(snapshot);
+                log.debug("Loaded employee snapshot with {} employees", snapshot.getEmployees().size());
+                return snapshot;
+            }
+        } finally {
+            synchronized (writeLock) {
+                writesDuringReload = null;
+            }
+        }
+    }
+
+    private Duration ageOf(EmployeeSnapshot snapshot) {
+        return Duration.between(snapshot.getLoadedAt(), clock.instant());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Where snapshots come from: the whole list, and upstream's change feed to catch an expired snapshot up with.
+     */
+    public interface Loader {
+
+        List<Employee> loadAll();
+
+        /**
+         * The change-feed version of a list {@link #loadAll()} just returned, or null if unknown.
+         */
+        String versionOf(List<Employee> employees);
+
+        /**
+         * Upstream's changes since the given version; empty if the feed can't reach back that far.
+         */
+        Optional<EmployeeChanges> changesSince(String version);
+    }
+}
@@ -0,0 +1,237 @@
+package com.reliaquest.api.client;
+
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Client-side token bucket for calls to the mock server, sized from what upstream's 429s reveal.
+ * <p>
+ * The mock server admits a fixed number of requests, then rejects everything until a quiet period has passed since
+ * the last one it admitted. Its count carries over however long the client pauses, so the run of admitted calls between
+ * two 429s is the budget. Until the first 429 every call is let through. After it, the bucket holds as many tokens as
+ * calls were admitted since the previous 429, and it refills in full only once it is empty and a window has passed
+ * since the last grant. The window is taken from {@code Retry-After} when upstream sends one; the mock server doesn't
+ * send it. Otherwise it starts at
+ * {@code initial-window} and doubles, up to {@code max-window}, whenever a refill is met straight away by another 429.
+ * <p>
+ * When the bucket is empty, {@link Priority#INTERACTIVE} callers wait up to {@code max-wait} for the refill.
+ * {@link Priority#BACKGROUND} callers are shed at once, and they also leave a fifth of the budget to interactive
+ * callers. Shed calls fail with {@link UpstreamRateLimitedException}. Callers mark background work with
+ * {@link #inBackground}.
+ */
+@Slf4j
+@Component
+public class AdaptiveRateLimiter {
+
+    public enum Priority {
+        INTERACTIVE, BACKGROUND
+    }
+
+    private static final ThreadLocal<Priority> PRIORITY = ThreadLocal.withInitial(() -> Priority.INTERACTIVE);
+
+    private static final int UNLIMITED = -1;
+
+    private final boolean enabled;
+    private final Duration maxWindow;
+    private final Duration maxWait;
+    private final Clock clock;
+
+    // per priority, indexed by ordinal
+    private final Counter[] granted;
+    private final Counter[] queued;
+    private final Counter[] shed;
+    private final Counter throttled;
+
+    // guarded by this
+    private int budget = UNLIMITED;
+    private int tokens;
+    private int admittedSinceRefill;
+    private int admittedSinceThrottle;
+    private Duration window;
+    private Instant blockedUntil = Instant.MIN;
+    private Instant lastGrant = Instant.MIN;
+    private Instant lastAdmitted = Instant.MIN;
+
+    @Autowired
+    public AdaptiveRateLimiter(@Value("${employee.rate-limit.enabled:true}") boolean enabled,
+                               @Value("${employee.rate-limit.initial-window:30s}") Duration initialWindow,
+                               @Value("${employee.rate-limit.max-window:2m}") Duration maxWindow,
+                               @Value("${employee.rate-limit.max-wait:2s}") Duration maxWait,
+                               MeterRegistry meterRegistry) {
+        this(enabled, initialWindow, maxWindow, maxWait, meterRegistry, Clock.systemUTC());
+    }
+
+    public AdaptiveRateLimiter(boolean enabled, Duration initialWindow, Duration maxWindow, Duration maxWait,
+                               MeterRegistry meterRegistry, Clock clock) {
+        this.enabled = enabled;
+        this.window = initialWindow;
+        this.maxWindow = maxWindow;
+        this.maxWait = maxWait;
+        this.clock = clock;
+
+        this.granted = decisionCounters("granted", meterRegistry);
+        this.queued = decisionCounters("queued", meterRegistry);
+        this.shed = decisionCounters("shed", meterRegistry);
+        this.throttled = Counter.builder("employee.upstream.rate.limit.throttled").description("429s received from upstream").register(meterRegistry);
+        Gauge.builder("employee.upstream.rate.limit.budget", this, limiter -> limiter.snapshot(() -> limiter.budget)).register(meterRegistry);
+        Gauge.builder("employee.upstream.rate.limit.tokens", this, limiter -> limiter.snapshot(() -> limiter.budget == UNLIMITED ? UNLIMITED : limiter.tokens)).register(meterRegistry);
+        Gauge.builder("employee.upstream.rate.limit.window", this, limiter -> limiter.snapshot(() -> limiter.window.toMillis()) / 1000.0).baseUnit("seconds").register(meterRegistry);
+    }
+
+    public static <T> T inBackground(Supplier<T> call) {
+        return withPriority(Priority.BACKGROUND, call);
+    }
+
+    // for work handed to another thread on the caller's behalf
+    public static Priority currentPriority() {
+        return PRIORITY.get();
+    }
+
+    public static <T> T withPriority(Priority priority, Supplier<T> call) {
+        Priority previous = PRIORITY.get();
+        PRIORITY.set(priority);
+        try {
+            return call.get();
+        } finally {
+            PRIORITY.set(previous);
+        }
+    }
+
+    /**
+     * Takes a permit for one upstream call at the calling thread's priority, waiting or shedding as described above.
+     */
+    public void acquire() {
+        if (!enabled) {
+            return;
+        }
+        Priority priority = PRIORITY.get();
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        boolean waited = false;
+        while (true) {
+            Duration wait;
+            synchronized (this) {
+                Instant now = clock.instant();
+                refillIfDue(now);
+                if (budget == UNLIMITED || tokens > reserveFor(priority)) {
+                    take(now);
+                    granted[priority.ordinal()].increment();
+                    return;
+                }
+                // tokens left are the interactive reserve; once they are used up the refill comes a window later at
+                // the earliest
+                wait = tokens > 0 ? window : Duration.between(now, blockedUntil);
+            }
+            long remaining = deadline - System.nanoTime();
+            if (priority == Priority.BACKGROUND || wait.toNanos() > remaining) {
+                shed[priority.ordinal()].increment();
+                throw new UpstreamRateLimitedException("Upstream rate limit reached, retry in " + Math.max(1, wait.toSeconds()) + "s", wait);
+            }
+            if (!waited) {
+                queued[priority.ordinal()].increment();
+                waited = true;
+            }
+            sleep(wait);
+        }
+    }
+
+    /**
+     * Upstream accepted the call (any response other than 429), so it counted against its budget.
+     */
+    public synchronized void onAdmitted() {
+        admittedSinceRefill++;
+        admittedSinceThrottle++;
+        lastAdmitted = clock.instant();
+    }
+
+    /**
+     * Upstream answered 429; {@code retryAfter} is its {@code Retry-After}, or null.
+     */
+    public synchronized void onThrottled(Duration retryAfter) {
+        throttled.increment();
+        if (!enabled) {
+            return;
+        }
+        Instant now = clock.instant();
+        if (admittedSinceThrottle > 0) {
+            budget = admittedSinceThrottle;
+        } else if (budget == UNLIMITED) {
+            budget = 1;
+        }
+        if (retryAfter != null) {
+            // upstream times its quiet period from the last request it admitted
+            Duration sinceAdmitted = lastAdmitted.isAfter(Instant.MIN) ? Duration.between(lastAdmitted, now) : Duration.ZERO;
+            window = min(retryAfter.plus(sinceAdmitted), maxWindow);
+            blockedUntil = now.plus(retryAfter);
+        } else {
+            if (admittedSinceRefill == 0) {
+                window = min(window.multipliedBy(2), maxWindow); // refilled too early
+            }
+            blockedUntil = now.plus(window);
+        }
+        tokens = 0;
+        admittedSinceRefill = 0;
+        admittedSinceThrottle = 0;
+        log.warn("Upstream rate limited us; budget {} per {}s, paused until {}", budget, window.toSeconds(), blockedUntil);
+    }
+
+    private void refillIfDue(Instant now) {
+        if (budget != UNLIMITED && tokens == 0 && !now.isBefore(blockedUntil)) {
+            tokens = budget;
+            admittedSinceRefill = 0;
+        }
+    }
+
+    private void take(Instant now) {
+        lastGrant = now;
+        if (budget == UNLIMITED) {
+            return;
+        }
+        if (--tokens == 0) {
+            blockedUntil = lastGrant.plus(window);
+        }
+    }
+
+    private static Counter[] decisionCounters(String outcome, MeterRegistry meterRegistry) {
+        Counter[] counters = new Counter[Priority.values().length];
+        for (Priority priority : Priority.values()) {
+            counters[priority.ordinal()] = Counter.builder("employee.upstream.rate.limit.decisions")
+                    .tag("outcome", outcome)
+                    .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+        return counters;
+    }
+
+    private int reserveFor(Priority priority) {
+        return priority == Priority.BACKGROUND ? budget / 5 : 0;
+    }
+
+    private synchronized double snapshot(Supplier<Number> value) {
+        return value.get().doubleValue();
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static void sleep(Duration wait) {
+        try {
+            Thread.sleep(Math.max(1, wait.toMillis()));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamRateLimitedException("Interrupted while waiting for an upstream permit", wait);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.reliaquest.api.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeChanges;
+import com.reliaquest.api.model.EmployeePage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the mock server's {@code {"data": ..., "status": ...}} envelope token by token, building {@link Employee}s
+ * straight from the {@code employee_*} fields instead of going through an intermediate {@code Map} tree.
+ */
+public final class EmployeeJsonReader {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private EmployeeJsonReader() {
+    }
+
+    public static List<Employee> readEmployeeList(InputStream body) throws IOException {
+        try (JsonParser parser = JSON.createParser(body)) {
+            List<Employee> employees = new ArrayList<>();
+            if (moveToData(parser) && parser.currentToken() == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    employees.add(readEmployee(parser));
+                }
+            }
+            return employees;
+        }
+    }
+
+    // hands each employee of a listing to the consumer as soon as it is parsed, keeping none of them
+    public static long forEachEmployee(InputStream body, EmployeeConsumer consumer) throws IOException {
+        try (JsonParser parser = JSON.createParser(body)) {
+            long count = 0;
+            if (moveToData(parser) && parser.currentToken() == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    consumer.accept(readEmployee(parser));
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    // a paged listing carries "next_cursor" next to "data" in the envelope
+    public static EmployeePage readEmployeePage(InputStream body) throws IOException {
+        try (JsonParser parser = JSON.createParser(body)) {
+            List<Employee> employees = new ArrayList<>();
+            String nextCursor = null;
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    if ("data".equals(field) && parser.currentToken() == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            employees.add(readEmployee(parser));
+                        }
+                    } else if ("next_cursor".equals(field)) {
+                        nextCursor = parser.getValueAsString();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+            return new EmployeePage(employees, nextCursor);
+        }
+    }
+
+    // {"data": {"changes": [{"type": ..., "employee": {...}}, ...], "version": ...}}
+    public static EmployeeChanges readChanges(InputStream body) throws IOException {
+        try (JsonParser parser = JSON.createParser(body)) {
+            List<EmployeeChanges.Change> changes = new ArrayList<>();
+            String version = null;
+            if (moveToData(parser) && parser.currentToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    if ("changes".equals(field) && parser.currentToken() == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            changes.add(readChange(parser));
+                        }
+                    } else if ("version".equals(field)) {
+                        version = parser.getValueAsString();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+            if (version == null) {
+                throw new JsonParseException(parser, "Response has no change-feed version");
+            }
+            return new EmployeeChanges(changes, version);
+        }
+    }
+
+    public static Employee readEmployee(InputStream body) throws IOException {
+        try (JsonParser parser = JSON.createParser(body)) {
+            if (moveToData(parser) && parser.currentToken() == JsonToken.START_OBJECT) {
+                return readEmployee(parser);
+            }
+            throw new JsonParseException(parser, "Response has no employee data");
+        }
+    }
+
+    public static boolean readDeleted(InputStream body) throws IOException {
+        try (JsonParser parser = JSON.createParser(body)) {
+            return moveToData(parser) && parser.currentToken() == JsonToken.VALUE_TRUE;
+        }
+    }
+
+    // bulk responses wrap one {"data": ..., "error": ...} envelope per entry in the outer "data" array
+    public static List<ItemResult<Employee>> readCreatedItems(InputStream body) throws IOException {
+        return readItems(body, parser -> parser.currentToken() == JsonToken.START_OBJECT ? readEmployee(parser) : null);
+    }
+
+    public static List<ItemResult<Boolean>> readDeletedItems(InputStream body) throws IOException {
+        return readItems(body, parser -> parser.currentToken() == JsonToken.VALUE_TRUE);
+    }
+
+    private static <T> List<ItemResult<T>> readItems(InputStream body, ValueReader<T> valueReader) throws IOException {
+        try (JsonParser parser = JSON.createParser(body)) {
+            List<ItemResult<T>> items = new ArrayList<>();
+            if (moveToData(parser) && parser.currentToken() == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    T data = null;
+                    String error = null;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.currentName();
+                        parser.nextToken();
+                        if ("data".equals(field)) {
+                            data = valueReader.read(parser);
+                        } else if ("error".equals(field)) {
+                            error = parser.getValueAsString();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    items.add(new ItemResult<>(data, error));
+                }
+            }
+            return items;
+        }
+    }
+
+    // leaves the parser on the first token of the "data" value; false if the envelope has none
+    private static boolean moveToData(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("data".equals(field)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    // expects the parser on START_OBJECT, leaves it on the matching END_OBJECT
+    private static EmployeeChanges.Change readChange(JsonParser parser) throws IOException {
+        String type = null;
+        Employee employee = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("type".equals(field)) {
+                type = parser.getValueAsString();
+            } else if ("employee".equals(field) && parser.currentToken() == JsonToken.START_OBJECT) {
+                employee = readEmployee(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        // skipping a change we don't understand would leave the reader's copy silently diverged
+        if (employee == null || !"CREATED".equals(type) && !"DELETED".equals(type)) {
+            throw new JsonParseException(parser, "Unrecognised change: " + type);
+        }
+        return new EmployeeChanges.Change(EmployeeChanges.Type.valueOf(type), employee);
+    }
+
+    // expects the parser on START_OBJECT, leaves it on the matching END_OBJECT
+    private static Employee readEmployee(JsonParser parser) throws IOException {
+        String id = null;
+        String name = null;
+        int salary = 0;
+        int age = 0;
+        String title = null;
+        String email = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id" -> id = parser.getValueAsString();
+                case "employee_name" -> name = parser.getValueAsString();
+                case "employee_salary" -> salary = parser.getValueAsInt();
+                case "employee_age" -> age = parser.getValueAsInt();
+                case "employee_title" -> title = parser.getValueAsString();
+                case "employee_email" -> email = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+        return new Employee(id, name, salary, age, title, email);
+    }
+
+    @FunctionalInterface
+    public interface EmployeeConsumer {
+
+        void accept(Employee employee) throws IOException;
+    }
+
+    public record ItemResult<T>(T data, String error) {
+    }
+
+    // expects the parser on the value's first token, leaves it on its last
+    @FunctionalInterface
+    private interface ValueReader<T> {
+
+        T read(JsonParser parser) throws IOException;
+    }
+}
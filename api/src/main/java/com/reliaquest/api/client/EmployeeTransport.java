@@ -0,0 +1,63 @@
+package com.reliaquest.api.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Raw HTTP exchange with the mock employee server. Response bodies are handed to a {@link BodyReader} as a stream so
+ * callers decode straight into their own types. Implementations report failures with the
+ * {@code org.springframework.web.client} exception types so resilience configuration doesn't depend on which one is
+ * active; select one with {@code employee.http.client}.
+ */
+public interface EmployeeTransport {
+
+    <T> T get(String url, BodyReader<T> reader);
+
+    /**
+     * GET whose body reaches the reader as it arrives from the socket, never held in memory as a whole. Transports
+     * that already stream {@link #get} needn't override this.
+     */
+    default <T> T stream(String url, BodyReader<T> reader) {
+        return get(url, reader);
+    }
+
+    /**
+     * GET that doesn't hold the calling thread while upstream answers: the future completes, with the reader's result
+     * or one of the usual exceptions unwrapped, once the body has arrived. Transports without non-blocking I/O run
+     * {@link #get} on the calling thread and hand back a completed future.
+     */
+    default <T> CompletableFuture<T> getAsync(String url, BodyReader<T> reader) {
+        try {
+            return CompletableFuture.completedFuture(get(url, reader));
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    /**
+     * GET sending {@code If-None-Match: etag} when an ETag is given. A 304 comes back as {@link Conditional#notModified}
+     * without reading anything; otherwise the body is read and returned with the response's ETag, if any. Transports
+     * that can't make conditional requests needn't override this.
+     */
+    default <T> Conditional<T> getIfNoneMatch(String url, String etag, BodyReader<T> reader) {
+        return new Conditional<>(get(url, reader), null, false);
+    }
+
+    <T> T post(String url, Object body, BodyReader<T> reader);
+
+    <T> T delete(String url, Object body, BodyReader<T> reader);
+
+    record Conditional<T>(T body, String etag, boolean notModified) {
+
+        public static <T> Conditional<T> notModified(String etag) {
+            return new Conditional<>(null, etag, true);
+        }
+    }
+
+    @FunctionalInterface
+    interface BodyReader<T> {
+
+        T read(InputStream body) throws IOException;
+    }
+}
@@ -0,0 +1,48 @@
+package com.reliaquest.api.client;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Blocking transport on the pooled {@link RestTemplate}; each call holds its Tomcat request thread until upstream has
+ * answered.
+ */
+@Component
+@ConditionalOnProperty(name = "employee.http.client", havingValue = "rest-template", matchIfMissing = true)
+public class RestTemplateEmployeeTransport implements EmployeeTransport {
+
+    private final RestTemplate restTemplate;
+
+    public RestTemplateEmployeeTransport(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    @Override
+    public <T> T get(String url, BodyReader<T> reader) {
+        return restTemplate.execute(url, HttpMethod.GET, null, response -> reader.read(response.getBody()));
+    }
+
+    @Override
+    public <T> Conditional<T> getIfNoneMatch(String url, String etag, BodyReader<T> reader) {
+        return restTemplate.execute(url, HttpMethod.GET, request -> {
+            if (etag != null) {
+                request.getHeaders().setIfNoneMatch(etag);
+            }
+        }, response -> response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)
+                ? Conditional.notModified(etag)
+                : new Conditional<>(reader.read(response.getBody()), response.getHeaders().getETag(), false));
+    }
+
+    @Override
+    public <T> T post(String url, Object body, BodyReader<T> reader) {
+        return restTemplate.execute(url, HttpMethod.POST, restTemplate.httpEntityCallback(body), response -> reader.read(response.getBody()));
+    }
+
+    @Override
+    public <T> T delete(String url, Object body, BodyReader<T> reader) {
+        return restTemplate.execute(url, HttpMethod.DELETE, restTemplate.httpEntityCallback(body), response -> reader.read(response.getBody()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.reliaquest.api.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Response timeout for each upstream request by endpoint category, so a slow list load can't hold a single-employee
+ * lookup to the same budget. The category is read off the request itself:
+ * <ul>
+ *     <li>lookup: GET of one employee, {@code /api/v1/employee/{id}}</li>
+ *     <li>list: any other GET (list, pages, export, and the change feed at {@code /api/v1/employee/changes}, which
+ *     can carry a whole list's worth of changes)</li>
+ *     <li>write: everything else (create, delete, bulk)</li>
+ * </ul>
+ * Both transports apply these per request on top of the pool-wide {@code employee.http} settings.
+ */
+@Component
+public class UpstreamTimeouts {
+
+    private static final String COLLECTION_PATH = "/api/v1/employee";
+    private static final String CHANGES_PATH = COLLECTION_PATH + "/changes";
+
+    private final Duration lookup;
+    private final Duration list;
+    private final Duration write;
+
+    public UpstreamTimeouts(@Value("${employee.http.timeouts.lookup:2s}") Duration lookup,
+                            @Value("${employee.http.timeouts.list:10s}") Duration list,
+                            @Value("${employee.http.timeouts.write:5s}") Duration write) {
+        this.lookup = lookup;
+        this.list = list;
+        this.write = write;
+    }
+
+    public Duration forRequest(HttpMethod method, URI uri) {
+        if (!HttpMethod.GET.equals(method)) {
+            return write;
+        }
+        String path = uri.getPath();
+        return path == null || path.equals(COLLECTION_PATH) || path.equals(COLLECTION_PATH + "/") || path.equals(CHANGES_PATH) ? list : lookup;
+    }
+}
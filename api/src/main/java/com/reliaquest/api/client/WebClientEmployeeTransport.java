@@ -0,0 +1,204 @@
+package com.reliaquest.api.client;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * WebClient on Reactor Netty, enabled with {@code employee.http.client=web-client}. Socket I/O runs on Netty's event
+ * loop. {@link #getAsync} is non-blocking: no thread waits on upstream, so a request thread that hands its future to
+ * Spring MVC is back in the pool for the whole exchange. The other calls block the calling thread until the response
+ * has arrived (or, for {@link #stream}, until the reader is done) and decode it there, just as with
+ * {@link RestTemplateEmployeeTransport}.
+ */
+@Component
+@ConditionalOnProperty(name = "employee.http.client", havingValue = "web-client")
+public class WebClientEmployeeTransport implements EmployeeTransport {
+
+    private static final int STREAM_PREFETCH = 16;
+
+    private final WebClient webClient;
+
+    public WebClientEmployeeTransport(WebClient employeeWebClient) {
+        this.webClient = employeeWebClient;
+    }
+
+    @Override
+    public <T> T get(String url, BodyReader<T> reader) {
+        return exchange(webClient.get().uri(url).retrieve(), reader);
+    }
+
+    // decoded on a bounded-elastic worker once the body is in, so neither the event loop nor the caller runs the reader
+    @Override
+    public <T> CompletableFuture<T> getAsync(String url, BodyReader<T> reader) {
+        return DataBufferUtils.join(webClient.get().uri(url).retrieve().bodyToFlux(DataBuffer.class))
+                .publishOn(Schedulers.boundedElastic())
+                .map(buffer -> decode(buffer, reader))
+                .onErrorMap(WebClientException.class, WebClientEmployeeTransport::translate)
+                .toFuture();
+    }
+
+    // buffers are pulled on the calling thread as the reader consumes them, at most STREAM_PREFETCH ahead
+    @Override
+    public <T> T stream(String url, BodyReader<T> reader) {
+        Flux<DataBuffer> body = webClient.get().uri(url).retrieve().bodyToFlux(DataBuffer.class)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        try (Stream<DataBuffer> buffers = body.toStream(STREAM_PREFETCH);
+             BufferStream in = new BufferStream(buffers.iterator())) {
+            // the status arrives before the body, so fail here rather than inside the reader
+            in.advance();
+            return reader.read(in);
+        } catch (IOException ex) {
+            throw new ResourceAccessException("Failed to read employee service response: " + ex.getMessage());
+        }
+    }
+
+    // the status and headers arrive first; a 304's (empty) body is drained without decoding
+    @Override
+    public <T> Conditional<T> getIfNoneMatch(String url, String etag, BodyReader<T> reader) {
+        ResponseEntity<Flux<DataBuffer>> response = translateErrors(() -> webClient.get().uri(url)
+                .headers(headers -> {
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                })
+                .retrieve()
+                .toEntityFlux(DataBuffer.class)
+                .block());
+        Flux<DataBuffer> body = response.getBody() == null ? Flux.empty() : response.getBody();
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            translateErrors(() -> body.doOnNext(DataBufferUtils::release).then().block());
+            return Conditional.notModified(etag);
+        }
+        return new Conditional<>(read(body, reader), response.getHeaders().getETag(), false);
+    }
+
+    @Override
+    public <T> T post(String url, Object body, BodyReader<T> reader) {
+        return exchange(webClient.post().uri(url).bodyValue(body).retrieve(), reader);
+    }
+
+    @Override
+    public <T> T delete(String url, Object body, BodyReader<T> reader) {
+        return exchange(webClient.method(HttpMethod.DELETE).uri(url).bodyValue(body).retrieve(), reader);
+    }
+
+    // decode on the calling thread, not the event loop
+    private static <T> T exchange(WebClient.ResponseSpec response, BodyReader<T> reader) {
+        return read(response.bodyToFlux(DataBuffer.class), reader);
+    }
+
+    private static <T> T read(Flux<DataBuffer> buffers, BodyReader<T> reader) {
+        DataBuffer buffer = translateErrors(() -> DataBufferUtils.join(buffers).block());
+        return buffer == null ? null : decode(buffer, reader);
+    }
+
+    private static <T> T decode(DataBuffer buffer, BodyReader<T> reader) {
+        try (InputStream body = buffer.asInputStream(true)) {
+            return reader.read(body);
+        } catch (IOException ex) {
+            throw new ResourceAccessException("Failed to read employee service response: " + ex.getMessage());
+        }
+    }
+
+    // errors become the RestTemplate types the circuit breaker knows
+    private static <T> T translateErrors(Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (WebClientException ex) {
+            throw translate(ex);
+        }
+    }
+
+    private static RuntimeException translate(WebClientException ex) {
+        if (ex instanceof WebClientResponseException response) {
+            HttpStatusCode status = response.getStatusCode();
+            if (status.is5xxServerError()) {
+                return HttpServerErrorException.create(status, response.getStatusText(), response.getHeaders(), response.getResponseBodyAsByteArray(), StandardCharsets.UTF_8);
+            }
+            return HttpClientErrorException.create(status, response.getStatusText(), response.getHeaders(), response.getResponseBodyAsByteArray(), StandardCharsets.UTF_8);
+        }
+        if (ex instanceof WebClientRequestException) {
+            return new ResourceAccessException(ex.getMessage());
+        }
+        return ex;
+    }
+
+    /**
+     * Reads across buffers as they are pulled, releasing each once consumed. Closing releases only the current
+     * buffer; closing the backing stream cancels the rest.
+     */
+    private static final class BufferStream extends InputStream {
+
+        private final Iterator<DataBuffer> buffers;
+        private DataBuffer current;
+
+        BufferStream(Iterator<DataBuffer> buffers) {
+            this.buffers = buffers;
+        }
+
+        // moves to the next buffer with data; false at the end of the body
+        boolean advance() {
+            while (current == null || current.readableByteCount() == 0) {
+                release();
+                if (!translateErrors(buffers::hasNext)) {
+                    return false;
+                }
+                current = translateErrors(buffers::next);
+            }
+            return true;
+        }
+
+        @Override
+        public int read() {
+            return advance() ? current.read() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!advance()) {
+                return -1;
+            }
+            int count = Math.min(length, current.readableByteCount());
+            current.read(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+
+        private void release() {
+            if (current != null) {
+                DataBufferUtils.release(current);
+                current = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.reliaquest.api.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.core.registry.EntryAddedEvent;
+import io.github.resilience4j.core.registry.EntryRemovedEvent;
+import io.github.resilience4j.core.registry.EntryReplacedEvent;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * resilience4j's Micrometer binding only publishes bulkhead capacity; this adds {@code employee.bulkhead.rejections},
+ * tagged with the bulkhead name, for calls turned away because it was full.
+ */
+@Configuration
+public class BulkheadMetricsConfig {
+
+    @Bean
+    public RegistryEventConsumer<Bulkhead> bulkheadRejectionMetrics(MeterRegistry meterRegistry) {
+        return new RegistryEventConsumer<>() {
+            @Override
+            public void onEntryAddedEvent(EntryAddedEvent<Bulkhead> event) {
+                bind(event.getAddedEntry());
+            }
+
+            @Override
+            public void onEntryRemovedEvent(EntryRemovedEvent<Bulkhead> event) {
+            }
+
+            @Override
+            public void onEntryReplacedEvent(EntryReplacedEvent<Bulkhead> event) {
+                bind(event.getNewEntry());
+            }
+
+            private void bind(Bulkhead bulkhead) {
+                Counter rejections = Counter.builder("employee.bulkhead.rejections")
+                        .description("Requests rejected because their bulkhead was full")
+                        .tag("name", bulkhead.getName())
+                        .register(meterRegistry);
+                bulkhead.getEventPublisher().onCallRejected(event -> rejections.increment());
+            }
+        };
+    }
+}
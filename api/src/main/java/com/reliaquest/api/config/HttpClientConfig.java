@@ -1,31 +1,145 @@
 package com.reliaquest.api.config;
 
+import com.reliaquest.api.client.UpstreamTimeouts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP clients for calls to the mock employee server. All knobs live under {@code employee.http}; the pooled
+ * RestTemplate is always available, the WebClient only when {@code employee.http.client=web-client}. Each request's
+ * response timeout comes from {@link UpstreamTimeouts}.
+ */
 @Configuration
 public class HttpClientConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
+    public PoolingHttpClientConnectionManager employeeConnectionManager(@Value("${employee.http.max-total:50}") int maxTotal,
+                                                                        @Value("${employee.http.max-per-route:20}") int maxPerRoute,
+                                                                        @Value("${employee.http.connect-timeout:5s}") Duration connectTimeout,
+                                                                        @Value("${employee.http.read-timeout:10s}") Duration readTimeout,
+                                                                        @Value("${employee.http.time-to-live:5m}") Duration timeToLive,
+                                                                        MeterRegistry meterRegistry) {
         // Configure connection pooling
-        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
-        connectionManager.setMaxTotal(50);
-        connectionManager.setDefaultMaxPerRoute(20);
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(timeout(connectTimeout))
+                        .setSocketTimeout(timeout(readTimeout))
+                        .setTimeToLive(TimeValue.ofMilliseconds(timeToLive.toMillis()))
+                        .build())
+                .build();
 
-        RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout(5000, java.util.concurrent.TimeUnit.MILLISECONDS)
+        // leased/available/pending/max gauges under httpcomponents.httpclient.pool.*
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "employee-upstream").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean
+    public RequestConfig employeeRequestConfig(@Value("${employee.http.connection-request-timeout:2s}") Duration connectionRequestTimeout,
+                                               @Value("${employee.http.response-timeout:10s}") Duration responseTimeout,
+                                               @Value("${employee.http.keep-alive:30s}") Duration keepAlive) {
+        // keep-alive applies when the server doesn't send a Keep-Alive header of its own
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(timeout(connectionRequestTimeout))
+                .setResponseTimeout(timeout(responseTimeout))
+                .setConnectionKeepAlive(TimeValue.ofMilliseconds(keepAlive.toMillis()))
                 .build();
+    }
 
+    @Bean
+    public CloseableHttpClient employeeHttpClient(PoolingHttpClientConnectionManager employeeConnectionManager,
+                                                  RequestConfig employeeRequestConfig,
+                                                  @Value("${employee.http.idle-eviction:30s}") Duration idleEviction) {
         // Build the HttpClient
-        CloseableHttpClient httpClient = HttpClients.custom().setConnectionManager(connectionManager).setDefaultRequestConfig(requestConfig).build();
-        
-        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        return HttpClients.custom()
+                .setConnectionManager(employeeConnectionManager)
+                .setDefaultRequestConfig(employeeRequestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEviction.toMillis()))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(CloseableHttpClient employeeHttpClient, RequestConfig employeeRequestConfig, UpstreamTimeouts upstreamTimeouts) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(employeeHttpClient);
+        // a request config in the context replaces the client default entirely, so start from a copy of it
+        requestFactory.setHttpContextFactory((method, uri) -> {
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(RequestConfig.copy(employeeRequestConfig)
+                    .setResponseTimeout(timeout(upstreamTimeouts.forRequest(method, uri)))
+                    .build());
+            return context;
+        });
         return new RestTemplate(requestFactory);
     }
-}
\ No newline at end of file
+
+    // Reactor Netty equivalents of the settings above, only built for employee.http.client=web-client
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnProperty(name = "employee.http.client", havingValue = "web-client")
+    public ConnectionProvider employeeConnectionProvider(@Value("${employee.http.max-per-route:20}") int maxPerRoute,
+                                                         @Value("${employee.http.connection-request-timeout:2s}") Duration connectionRequestTimeout,
+                                                         @Value("${employee.http.keep-alive:30s}") Duration keepAlive,
+                                                         @Value("${employee.http.time-to-live:5m}") Duration timeToLive,
+                                                         @Value("${employee.http.idle-eviction:30s}") Duration idleEviction) {
+        // Reactor Netty pools per remote host, so the per-route limit is the one that applies
+        return ConnectionProvider.builder("employee-upstream")
+                .maxConnections(maxPerRoute)
+                .pendingAcquireTimeout(connectionRequestTimeout)
+                .maxIdleTime(keepAlive)
+                .maxLifeTime(timeToLive)
+                .evictInBackground(idleEviction)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "employee.http.client", havingValue = "web-client")
+    public WebClient employeeWebClient(WebClient.Builder builder,
+                                       ConnectionProvider employeeConnectionProvider,
+                                       UpstreamTimeouts upstreamTimeouts,
+                                       @Value("${employee.http.connect-timeout:5s}") Duration connectTimeout,
+                                       @Value("${employee.http.read-timeout:10s}") Duration readTimeout,
+                                       @Value("${employee.http.response-timeout:10s}") Duration responseTimeout) {
+        HttpClient httpClient = HttpClient.create(employeeConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout)
+                .doOnConnected(connection -> connection.addHandlerLast(new ReadTimeoutHandler(readTimeout.toMillis(), TimeUnit.MILLISECONDS)));
+        return builder.clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter((request, next) -> next.exchange(ClientRequest.from(request)
+                        .httpRequest(httpRequest -> httpRequest.<HttpClientRequest>getNativeRequest()
+                                .responseTimeout(upstreamTimeouts.forRequest(request.method(), request.url())))
+                        .build()))
+                .build();
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+}
@@ -1,29 +1,166 @@
 package com.reliaquest.api.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.model.BulkOutcome;
 import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeBatch;
+import com.reliaquest.api.model.EmployeePage;
+import com.reliaquest.api.model.EmployeeQuery;
+import com.reliaquest.api.model.SalaryStatistics;
 import com.reliaquest.api.service.EmployeeService;
 import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/v1/employee")
 public class EmployeeController implements IEmployeeController<Object, Employee> {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // flush the first line at once, then every this many, so clients see data before the export finishes
+    private static final int EXPORT_FLUSH_EVERY = 256;
+
     private final EmployeeService employeeService;
 
-    public EmployeeController(EmployeeService employeeService) {
+    private final ObjectMapper objectMapper;
+
+    // flushing is left to exportEmployees rather than done after every line
+    private final ObjectWriter exportWriter;
+
+    public EmployeeController(EmployeeService employeeService, ObjectMapper objectMapper) {
         this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+        this.exportWriter = objectMapper.writerFor(Employee.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
+    // a matching If-None-Match is answered with 304 before the list is copied and serialized
     @Override
     @GetMapping
     public ResponseEntity<List<Object>> getAllEmployees() {
-        List<Object> employees = employeeService.getAllEmployees().stream().map(Object.class::cast).toList();
-        return ResponseEntity.ok(employees);
+        EmployeeSnapshot snapshot = employeeService.getEmployeeSnapshot();
+        if (notModified(snapshot.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getETag()).build();
+        }
+        List<Object> employees = snapshot.getEmployees().stream().map(Object.class::cast).toList();
+        return ResponseEntity.ok().eTag(snapshot.getETag()).body(employees);
+    }
+
+    // the interface fixes getAllEmployees() without a WebRequest parameter, so the request comes from the request context
+    private static boolean notModified(String eTag) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return new ServletWebRequest(attributes.getRequest(), attributes.getResponse()).checkNotModified(eTag);
+        }
+        return false;
+    }
+
+    // GET ?limit=N[&page=P | &cursor=C]; the cursor for the next page comes back in X-Next-Cursor. Answered
+    // asynchronously: the request thread goes back to the pool while upstream serves the page
+    @GetMapping(params = "limit")
+    public CompletableFuture<ResponseEntity<List<Object>>> getEmployeesPage(@RequestParam(required = false) Integer page,
+                                                                            @RequestParam int limit,
+                                                                            @RequestParam(required = false) String cursor) {
+        return employeeService.getEmployeesPage(page, limit, cursor).thenApply(employeePage -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (employeePage.nextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, employeePage.nextCursor());
+            }
+            return response.body(employeePage.employees().stream().map(Object.class::cast).toList());
+        });
+    }
+
+    // GET /query?minSalary=&maxSalary=&minAge=&maxAge=&title=&titlePrefix=&name=&sort=-salary&limit=; every filter
+    // is optional, sort is salary or age (descending with a leading '-'), results are in list order without one
+    @GetMapping("/query")
+    public ResponseEntity<List<Employee>> queryEmployees(@RequestParam(required = false) Integer minSalary,
+                                                         @RequestParam(required = false) Integer maxSalary,
+                                                         @RequestParam(required = false) Integer minAge,
+                                                         @RequestParam(required = false) Integer maxAge,
+                                                         @RequestParam(required = false) String title,
+                                                         @RequestParam(required = false) String titlePrefix,
+                                                         @RequestParam(required = false) String name,
+                                                         @RequestParam(required = false) String sort,
+                                                         @RequestParam(required = false) Integer limit) {
+        EmployeeQuery query = new EmployeeQuery(minSalary, maxSalary, minAge, maxAge, title, titlePrefix, name, EmployeeQuery.Sort.parse(sort), limit);
+        return ResponseEntity.ok(employeeService.queryEmployees(query));
+    }
+
+    // GET /top/{k}?by=salary|age and /bottom/{k}: the k highest / lowest, ties in list order; names=true returns
+    // just the names, as /topTenHighestEarningEmployeeNames does for /top/10?by=salary
+    @GetMapping("/top/{k}")
+    public ResponseEntity<List<Object>> getTopEmployees(@PathVariable int k,
+                                                        @RequestParam(defaultValue = "salary") String by,
+                                                        @RequestParam(defaultValue = "false") boolean names) {
+        return ranked(EmployeeQuery.Sort.of(by, true), k, names);
+    }
+
+    @GetMapping("/bottom/{k}")
+    public ResponseEntity<List<Object>> getBottomEmployees(@PathVariable int k,
+                                                           @RequestParam(defaultValue = "salary") String by,
+                                                           @RequestParam(defaultValue = "false") boolean names) {
+        return ranked(EmployeeQuery.Sort.of(by, false), k, names);
+    }
+
+    private ResponseEntity<List<Object>> ranked(EmployeeQuery.Sort order, int k, boolean names) {
+        List<?> ranked = names ? employeeService.getRankedEmployeeNames(order, k) : employeeService.getRankedEmployees(order, k);
+        return ResponseEntity.ok(ranked.stream().map(Object.class::cast).toList());
+    }
+
+    // up to 100 ids in one call; unknown ids are listed under notFound rather than failing the batch
+    @PostMapping("/batch")
+    public ResponseEntity<EmployeeBatch> getEmployeesByIds(@RequestBody List<String> ids) {
+        return ResponseEntity.ok(employeeService.getEmployeesByIds(ids));
+    }
+
+    // bulk writes answer 200 with one outcome per entry, in request order, even when some entries failed
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkOutcome>> createEmployees(@RequestBody List<Employee> employees) {
+        return ResponseEntity.ok(employeeService.createEmployees(employees));
+    }
+
+    @DeleteMapping("/bulk")
+    public ResponseEntity<List<BulkOutcome>> deleteEmployeesByIds(@RequestBody List<String> ids) {
+        return ResponseEntity.ok(employeeService.deleteEmployeesByIds(ids));
+    }
+
+    // one employee per line, relayed from upstream as it arrives; memory use doesn't depend on headcount
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportEmployees() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.setRootValueSeparator(null);
+                long[] written = {0};
+                employeeService.forEachEmployee(employee -> {
+                    exportWriter.writeValue(json, employee);
+                    json.writeRaw('\n');
+                    if (written[0]++ % EXPORT_FLUSH_EVERY == 0) {
+                        json.flush();
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                // the client went away mid-export; there is no one left to report to
+                log.debug("Employee export aborted by client: {}", ex.getCause().getMessage());
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 
     @Override
@@ -44,6 +181,12 @@ public class EmployeeController implements IEmployeeController<Object, Employee>
         return ResponseEntity.ok(employeeService.getHighestSalaryOfEmployees());
     }
 
+    // count, min, max, mean, standard deviation and approximate percentiles, overall and per title
+    @GetMapping("/salaryStatistics")
+    public ResponseEntity<SalaryStatistics> getSalaryStatistics() {
+        return ResponseEntity.ok(employeeService.getSalaryStatistics());
+    }
+
     @Override
     @GetMapping("/topTenHighestEarningEmployeeNames")
     public ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() {
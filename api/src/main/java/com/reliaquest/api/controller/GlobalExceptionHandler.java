@@ -1,8 +1,12 @@
 package com.reliaquest.api.controller;
 
 import com.reliaquest.api.exception.EmployeeNotCreatedException;
+import com.reliaquest.api.exception.EmployeeNotDeletedException;
 import com.reliaquest.api.exception.EmployeeNotFoundException;
 import com.reliaquest.api.exception.EmployeeServiceUnavailableException;
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -35,6 +39,12 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(buildErrorResponse("Employee Not Created", ex.getMessage(), HttpStatus.BAD_REQUEST), HttpStatus.BAD_REQUEST);
     }
 
+    // upstream deletes by name, so an employee sharing its name with another can't be singled out
+    @ExceptionHandler(EmployeeNotDeletedException.class)
+    public ResponseEntity<Map<String, Object>> handleEmployeeNotDeletedException(EmployeeNotDeletedException ex) {
+        return new ResponseEntity<>(buildErrorResponse("Employee Not Deleted", ex.getMessage(), HttpStatus.CONFLICT), HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
         return new ResponseEntity<>(buildErrorResponse("Internal Server Error", ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -57,5 +67,22 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(buildErrorResponse("Service Unavailable", ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE), HttpStatus.SERVICE_UNAVAILABLE);
     }
 
+    // shed before reaching upstream; tell the caller when a permit is expected
+    @ExceptionHandler(UpstreamRateLimitedException.class)
+    public ResponseEntity<Map<String, Object>> handleUpstreamRateLimited(UpstreamRateLimitedException ex) {
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(buildErrorResponse("Service Unavailable", ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    // too many concurrent requests of this kind; the bulkhead frees up as soon as one of them finishes
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<Map<String, Object>> handleBulkheadFull(BulkheadFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(buildErrorResponse("Service Unavailable", ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
 
 }
@@ -0,0 +1,7 @@
+package com.reliaquest.api.exception;
+
+public class EmployeeNotDeletedException extends RuntimeException {
+    public EmployeeNotDeletedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.reliaquest.api.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown without calling upstream when the client-side rate limiter has no permit to give; {@link #getRetryAfter()}
+ * is when one is expected.
+ */
+public class UpstreamRateLimitedException extends EmployeeServiceUnavailableException {
+
+    private final Duration retryAfter;
+
+    public UpstreamRateLimitedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,538 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.model.Employee;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable column-oriented copy of an employee list: salaries and ages in {@code int[]}s, titles dictionary-encoded,
+ * and every name in one shared {@code char[]} addressed by offsets. Salary and name scans walk a few contiguous arrays
+ * instead of one heap object (plus its strings) per employee; {@link Employee}s are only materialized for the rows a
+ * caller actually reads, see {@link #employee(int)} and {@link #asList()}.
+ * <p>
+ * Rows are addressed by ordinal, in list order. Removing a row leaves a hole so the other ordinals, and any index built
+ * over them, stay valid; once holes outnumber live rows the removal compacts instead and the rows are renumbered, which
+ * shows as a different {@link #slots()}. Names are also kept lower-cased a char at a time for case-insensitive matching.
+ * <p>
+ * Columns grown by appends keep spare capacity, and the columns derived from them share the arrays: the newest columns
+ * of a family write an appended row straight into the spare slots, which no other columns read, and extend the id table
+ * in place. Only a family's first append, or one that finds the arrays full or another append already past its end,
+ * copies, and that copy reserves room for a quarter more rows, so a run of single-employee creates costs O(1) each
+ * amortized rather than a copy of every column per create.
+ */
+public final class EmployeeColumns {
+
+    private static final EmployeeColumns EMPTY = new Builder(0).build();
+
+    private static final int NO_TITLE = -1;
+
+    private final int slots;
+    private final int live;
+    private final int nameLength;
+    // null while there are no holes / no null names, which is the common case
+    private final BitSet removed;
+    private final BitSet nullNames;
+    private final String[] ids;
+    private final int[] salaries;
+    private final int[] ages;
+    private final int[] titleCodes;
+    private final String[] titles;
+    private final Map<String, Integer> titleCodesByTitle;
+    private final char[] names;
+    private final char[] lowerNames;
+    // name of row i is chars [nameOffsets[i], nameOffsets[i + 1])
+    private final int[] nameOffsets;
+    private final String[] emails;
+    // open addressing over ids, linear probing; each slot holds ordinal + 1, 0 when empty
+    private final int[] idTable;
+    // rows written into these arrays by any columns sharing them; appending in place means claiming the next one
+    private final AtomicInteger rowsWritten;
+    private volatile int[] liveOrdinals;
+
+    private EmployeeColumns(Builder builder) {
+        this.slots = builder.size;
+        this.live = builder.size - (builder.removed == null ? 0 : builder.removed.cardinality());
+        this.nameLength = builder.nameLength;
+        this.removed = builder.removed == null || builder.removed.isEmpty() ? null : builder.removed;
+        this.nullNames = builder.nullNames == null || builder.nullNames.isEmpty() ? null : builder.nullNames;
+        // a builder continued from other columns is growing them, so its spare capacity is kept for later appends
+        boolean trim = !builder.growing;
+        this.ids = trim ? exact(builder.ids, builder.size) : builder.ids;
+        this.salaries = trim ? exact(builder.salaries, builder.size) : builder.salaries;
+        this.ages = trim ? exact(builder.ages, builder.size) : builder.ages;
+        this.titleCodes = trim ? exact(builder.titleCodes, builder.size) : builder.titleCodes;
+        this.titles = builder.titles.length == builder.titleCount ? builder.titles : Arrays.copyOf(builder.titles, builder.titleCount);
+        this.titleCodesByTitle = builder.titleCodesByTitle;
+        this.names = trim ? exact(builder.names, builder.nameLength) : builder.names;
+        this.lowerNames = trim ? exact(builder.lowerNames, builder.nameLength) : builder.lowerNames;
+        this.nameOffsets = trim ? exact(builder.nameOffsets, builder.size + 1) : builder.nameOffsets;
+        this.emails = trim ? exact(builder.emails, builder.size) : builder.emails;
+        this.idTable = buildIdTable(this.ids, builder.size);
+        this.rowsWritten = new AtomicInteger(builder.size);
+    }
+
+    // same rows, only the holes differ
+    private EmployeeColumns(EmployeeColumns from, BitSet removed) {
+        this(from, from.slots, from.slots - removed.cardinality(), from.nameLength, removed, from.nullNames, from.titles, from.titleCodesByTitle);
+    }
+
+    // same arrays, possibly with rows appended in place past from's end
+    private EmployeeColumns(EmployeeColumns from, int slots, int live, int nameLength, BitSet removed, BitSet nullNames,
+                            String[] titles, Map<String, Integer> titleCodesByTitle) {
+        this.slots = slots;
+        this.live = live;
+        this.nameLength = nameLength;
+        this.removed = removed;
+        this.nullNames = nullNames;
+        this.ids = from.ids;
+        this.salaries = from.salaries;
+        this.ages = from.ages;
+        this.titleCodes = from.titleCodes;
+        this.titles = titles;
+        this.titleCodesByTitle = titleCodesByTitle;
+        this.names = from.names;
+        this.lowerNames = from.lowerNames;
+        this.nameOffsets = from.nameOffsets;
+        this.emails = from.emails;
+        this.idTable = from.idTable;
+        this.rowsWritten = from.rowsWritten;
+    }
+
+    public static EmployeeColumns of(List<Employee> employees) {
+        if (employees.isEmpty()) {
+            return EMPTY;
+        }
+        Builder builder = new Builder(employees.size());
+        for (Employee employee : employees) {
+            builder.add(employee);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Number of ordinals in use, holes included; rows are {@code 0 .. slots() - 1}.
+     */
+    public int slots() {
+        return slots;
+    }
+
+    /**
+     * Number of live rows.
+     */
+    public int size() {
+        return live;
+    }
+
+    public boolean isLive(int ordinal) {
+        return ordinal >= 0 && ordinal < slots && (removed == null || !removed.get(ordinal));
+    }
+
+    public String id(int ordinal) {
+        return ids[ordinal];
+    }
+
+    public int salary(int ordinal) {
+        return salaries[ordinal];
+    }
+
+    public int age(int ordinal) {
+        return ages[ordinal];
+    }
+
+    public String title(int ordinal) {
+        int code = titleCodes[ordinal];
+        return code == NO_TITLE ? null : titles[code];
+    }
+
+    public String email(int ordinal) {
+        return emails[ordinal];
+    }
+
+    public String name(int ordinal) {
+        if (nullNames != null && nullNames.get(ordinal)) {
+            return null;
+        }
+        return new String(names, nameOffsets[ordinal], nameOffsets[ordinal + 1] - nameOffsets[ordinal]);
+    }
+
+    /**
+     * A new {@link Employee} with the row's values; callers get a copy they are free to modify.
+     */
+    public Employee employee(int ordinal) {
+        return new Employee(ids[ordinal], name(ordinal), salaries[ordinal], ages[ordinal], title(ordinal), emails[ordinal]);
+    }
+
+    /**
+     * Ordinal of the first live row with this id, or -1.
+     */
+    public int ordinalOf(String id) {
+        if (id == null || slots == 0) {
+            return -1;
+        }
+        int mask = idTable.length - 1;
+        for (int slot = spread(id.hashCode()) & mask; idTable[slot] != 0; slot = (slot + 1) & mask) {
+            int ordinal = idTable[slot] - 1;
+            if (isLive(ordinal) && id.equals(ids[ordinal])) {
+                return ordinal;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * True if the row's name contains {@code lowerNeedle}, which must already be {@link #fold folded}.
+     */
+    public boolean nameContains(int ordinal, char[] lowerNeedle) {
+        int start = nameOffsets[ordinal];
+        int last = nameOffsets[ordinal + 1] - lowerNeedle.length;
+        outer:
+        for (int from = start; from <= last; from++) {
+            for (int j = 0; j < lowerNeedle.length; j++) {
+                if (lowerNames[from + j] != lowerNeedle[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Live rows in ordinal order, materialized one {@link Employee} per {@link List#get} call.
+     */
+    public List<Employee> asList() {
+        return new RowList();
+    }
+
+    /**
+     * Appends a row; its ordinal is the current {@link #slots()}. In place when these are the newest columns over their
+     * arrays and there is room, else into a copy with room to spare.
+     */
+    public EmployeeColumns withAdded(Employee employee) {
+        String name = employee.getName();
+        int length = name == null ? 0 : name.length();
+        boolean fits = slots < ids.length && nameLength + length <= names.length && 2 * (slots + 1) <= idTable.length;
+        if (fits && rowsWritten.compareAndSet(slots, slots + 1)) {
+            return appendInPlace(employee, name, length);
+        }
+        Builder builder = new Builder(this, Math.max(16, slots / 4));
+        builder.add(employee);
+        return builder.build();
+    }
+
+    public EmployeeColumns withAddedAll(Iterable<Employee> employees) {
+        EmployeeColumns columns = this;
+        for (Employee employee : employees) {
+            columns = columns.withAdded(employee);
+        }
+        return columns;
+    }
+
+    // the caller has claimed row `slots`: columns at or before this one never read it, so it can be written unshared
+    private EmployeeColumns appendInPlace(Employee employee, String name, int length) {
+        int ordinal = slots;
+        String[] appendedTitles = titles;
+        Map<String, Integer> appendedCodes = titleCodesByTitle;
+        String title = employee.getTitle();
+        int titleCode = NO_TITLE;
+        if (title != null) {
+            Integer code = titleCodesByTitle.get(title);
+            if (code == null) {
+                // the dictionary is shared with earlier columns, so a new title copies it; titles are few
+                appendedTitles = Arrays.copyOf(titles, titles.length + 1);
+                appendedTitles[titles.length] = title;
+                appendedCodes = new HashMap<>(titleCodesByTitle);
+                appendedCodes.put(title, titles.length);
+                code = titles.length;
+            }
+            titleCode = code;
+        }
+        BitSet appendedNullNames = nullNames;
+        if (name == null) {
+            appendedNullNames = nullNames == null ? new BitSet() : (BitSet) nullNames.clone();
+            appendedNullNames.set(ordinal);
+        }
+        ids[ordinal] = employee.getId();
+        salaries[ordinal] = employee.getSalary();
+        ages[ordinal] = employee.getAge();
+        titleCodes[ordinal] = titleCode;
+        emails[ordinal] = employee.getEmail();
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            names[nameLength + i] = c;
+            lowerNames[nameLength + i] = Character.toLowerCase(c);
+        }
+        nameOffsets[ordinal + 1] = nameLength + length;
+        if (employee.getId() != null) {
+            // earlier columns probing past this slot skip it: the ordinal isn't live for them
+            insertId(idTable, employee.getId(), ordinal);
+        }
+        return new EmployeeColumns(this, ordinal + 1, live + 1, nameLength + length, removed, appendedNullNames, appendedTitles, appendedCodes);
+    }
+
+    /**
+     * Leaves a hole at {@code ordinal}, or compacts when holes would outnumber live rows.
+     */
+    public EmployeeColumns withRemoved(int ordinal) {
+        if (!isLive(ordinal)) {
+            return this;
+        }
+        if (slots - live + 1 > live - 1) {
+            return compact(Set.of(), ordinal);
+        }
+        BitSet holes = removed == null ? new BitSet(slots) : (BitSet) removed.clone();
+        holes.set(ordinal);
+        return new EmployeeColumns(this, holes);
+    }
+
+    /**
+     * Drops every live row whose id is in {@code removedIds}, compacting the rest.
+     */
+    public EmployeeColumns withRemovedAll(Set<String> removedIds) {
+        for (int ordinal = 0; ordinal < slots; ordinal++) {
+            if (isLive(ordinal) && removedIds.contains(ids[ordinal])) {
+                return compact(removedIds, -1);
+            }
+        }
+        return this;
+    }
+
+    // copies live rows, skipping the given ordinal and any row whose id is in removedIds
+    private EmployeeColumns compact(Set<String> removedIds, int removedOrdinal) {
+        Builder builder = new Builder(live);
+        for (int ordinal = 0; ordinal < slots; ordinal++) {
+            if (isLive(ordinal) && ordinal != removedOrdinal && !removedIds.contains(ids[ordinal])) {
+                builder.addRow(this, ordinal);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * The case folding applied to {@link #nameContains} needles and to the lower-cased names: one char at a time, so
+     * a folded name has the same length and offsets as the original.
+     */
+    public static char[] fold(String value) {
+        char[] folded = value == null ? new char[0] : value.toCharArray();
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = Character.toLowerCase(folded[i]);
+        }
+        return folded;
+    }
+
+    // the index builds its trigrams straight from the folded name buffer
+    char[] lowerNames() {
+        return lowerNames;
+    }
+
+    int nameStart(int ordinal) {
+        return nameOffsets[ordinal];
+    }
+
+    int nameEnd(int ordinal) {
+        return nameOffsets[ordinal + 1];
+    }
+
+    private int liveOrdinal(int position) {
+        if (removed == null) {
+            return position;
+        }
+        int[] ordinals = liveOrdinals;
+        if (ordinals == null) {
+            ordinals = new int[live];
+            for (int ordinal = removed.nextClearBit(0), i = 0; ordinal < slots; ordinal = removed.nextClearBit(ordinal + 1)) {
+                ordinals[i++] = ordinal;
+            }
+            liveOrdinals = ordinals;
+        }
+        return ordinals[position];
+    }
+
+    // sized for the id column's capacity, so rows appended in place fit without a rebuild
+    private static int[] buildIdTable(String[] ids, int size) {
+        int capacity = Integer.highestOneBit(Math.max(8, ids.length) * 2 - 1) << 1;
+        int[] table = new int[capacity];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            if (ids[ordinal] != null) {
+                insertId(table, ids[ordinal], ordinal);
+            }
+        }
+        return table;
+    }
+
+    private static void insertId(int[] table, String id, int ordinal) {
+        int mask = table.length - 1;
+        int slot = spread(id.hashCode()) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = ordinal + 1;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int[] exact(int[] values, int length) {
+        return values.length == length ? values : Arrays.copyOf(values, length);
+    }
+
+    private static char[] exact(char[] values, int length) {
+        return values.length == length ? values : Arrays.copyOf(values, length);
+    }
+
+    private static String[] exact(String[] values, int length) {
+        return values.length == length ? values : Arrays.copyOf(values, length);
+    }
+
+    private final class RowList extends AbstractList<Employee> implements RandomAccess {
+
+        @Override
+        public Employee get(int index) {
+            Objects.checkIndex(index, live);
+            return employee(liveOrdinal(index));
+        }
+
+        @Override
+        public int size() {
+            return live;
+        }
+    }
+
+    // growable columns; build() trims them to size unless they are growing existing columns
+    private static final class Builder {
+
+        private final boolean growing;
+        private int size;
+        private int nameLength;
+        private BitSet removed;
+        private BitSet nullNames;
+        private String[] ids;
+        private int[] salaries;
+        private int[] ages;
+        private int[] titleCodes;
+        private String[] titles;
+        private int titleCount;
+        private Map<String, Integer> titleCodesByTitle;
+        // the dictionary still belongs to the columns we continue from
+        private boolean sharedTitles;
+        private char[] names;
+        private char[] lowerNames;
+        private int[] nameOffsets;
+        private String[] emails;
+
+        Builder(int expectedRows) {
+            growing = false;
+            ids = new String[expectedRows];
+            salaries = new int[expectedRows];
+            ages = new int[expectedRows];
+            titleCodes = new int[expectedRows];
+            emails = new String[expectedRows];
+            nameOffsets = new int[expectedRows + 1];
+            names = new char[expectedRows * 16];
+            lowerNames = new char[expectedRows * 16];
+            titles = new String[16];
+            titleCodesByTitle = new HashMap<>();
+        }
+
+        // continues from existing columns, copying them once with room for extraRows more
+        Builder(EmployeeColumns from, int extraRows) {
+            growing = true;
+            size = from.slots;
+            nameLength = from.nameLength;
+            removed = from.removed == null ? null : (BitSet) from.removed.clone();
+            nullNames = from.nullNames == null ? null : (BitSet) from.nullNames.clone();
+            ids = Arrays.copyOf(from.ids, size + extraRows);
+            salaries = Arrays.copyOf(from.salaries, size + extraRows);
+            ages = Arrays.copyOf(from.ages, size + extraRows);
+            titleCodes = Arrays.copyOf(from.titleCodes, size + extraRows);
+            emails = Arrays.copyOf(from.emails, size + extraRows);
+            nameOffsets = Arrays.copyOf(from.nameOffsets, size + extraRows + 1);
+            names = Arrays.copyOf(from.names, nameLength + extraRows * 16);
+            lowerNames = Arrays.copyOf(from.lowerNames, nameLength + extraRows * 16);
+            // copied only if a new title turns up
+            titles = from.titles;
+            titleCount = from.titles.length;
+            titleCodesByTitle = from.titleCodesByTitle;
+            sharedTitles = true;
+        }
+
+        void add(Employee employee) {
+            append(employee.getId(), employee.getName(), employee.getSalary(), employee.getAge(), employee.getTitle(), employee.getEmail());
+        }
+
+        void addRow(EmployeeColumns from, int ordinal) {
+            append(from.ids[ordinal], from.name(ordinal), from.salaries[ordinal], from.ages[ordinal], from.title(ordinal), from.emails[ordinal]);
+        }
+
+        private void append(String id, String name, int salary, int age, String title, String email) {
+            if (size == ids.length) {
+                int capacity = Math.max(8, size * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                salaries = Arrays.copyOf(salaries, capacity);
+                ages = Arrays.copyOf(ages, capacity);
+                titleCodes = Arrays.copyOf(titleCodes, capacity);
+                emails = Arrays.copyOf(emails, capacity);
+                nameOffsets = Arrays.copyOf(nameOffsets, capacity + 1);
+            }
+            ids[size] = id;
+            salaries[size] = salary;
+            ages[size] = age;
+            titleCodes[size] = titleCode(title);
+            emails[size] = email;
+            if (name == null) {
+                if (nullNames == null) {
+                    nullNames = new BitSet();
+                }
+                nullNames.set(size);
+            } else {
+                if (nameLength + name.length() > names.length) {
+                    int capacity = Math.max(nameLength + name.length(), names.length * 2);
+                    names = Arrays.copyOf(names, capacity);
+                    lowerNames = Arrays.copyOf(lowerNames, capacity);
+                }
+                for (int i = 0; i < name.length(); i++) {
+                    char c = name.charAt(i);
+                    names[nameLength + i] = c;
+                    lowerNames[nameLength + i] = Character.toLowerCase(c);
+                }
+                nameLength += name.length();
+            }
+            size++;
+            nameOffsets[size] = nameLength;
+        }
+
+        private int titleCode(String title) {
+            if (title == null) {
+                return NO_TITLE;
+            }
+            Integer code = titleCodesByTitle.get(title);
+            if (code != null) {
+                return code;
+            }
+            if (sharedTitles) {
+                titles = Arrays.copyOf(titles, Math.max(16, titleCount * 2));
+                titleCodesByTitle = new HashMap<>(titleCodesByTitle);
+                sharedTitles = false;
+            } else if (titleCount == titles.length) {
+                titles = Arrays.copyOf(titles, titleCount * 2);
+            }
+            titles[titleCount] = title;
+            titleCodesByTitle.put(title, titleCount);
+            return titleCount++;
+        }
+
+        EmployeeColumns build() {
+            return new EmployeeColumns(this);
+        }
+    }
+}
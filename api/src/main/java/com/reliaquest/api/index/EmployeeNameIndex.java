@@ -0,0 +1,242 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.model.Employee;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trigram inverted index over lower-cased employee names for case-insensitive substring search.
+ * <p>
+ * The index is built over an {@link EmployeeColumns} and uses its ordinals; every trigram maps to the sorted ordinals of
+ * the names containing it. A query of three or more characters intersects the posting lists of its trigrams, shortest
+ * first, and only the surviving candidates are checked against the folded name buffer. Shorter queries fall back to
+ * scanning that buffer. Results come back in list order; only matches are materialized as {@link Employee}s. Scans and
+ * candidate checks over large snapshots are split across a {@link ParallelScan}.
+ * <p>
+ * Instances are immutable; {@link #withAdded} and {@link #withRemoved} copy only the posting lists they touch. Those go
+ * into a small overlay shadowing the shared base map, and only the overlay is copied per write; once it outgrows a few
+ * times the square root of the base it is merged into a new base, so a write costs O(sqrt(trigrams)) amortized rather
+ * than a copy of the whole map. Removed employees leave a hole in the ordinal space until the columns compact, at which
+ * point the index is rebuilt.
+ */
+public final class EmployeeNameIndex {
+
+    private static final int GRAM = 3;
+    private static final int MIN_OVERLAY = 256;
+    // in the overlay: the gram no longer has any names, whatever the base says
+    private static final int[] NO_ORDINALS = new int[0];
+
+    private final EmployeeColumns columns;
+    // never modified once built; shared by every index derived from the same build or merge
+    private final Map<String, int[]> postings;
+    // posting lists written since the base was built, taking precedence over it
+    private final Map<String, int[]> overlay;
+    private final ParallelScan scan;
+
+    private EmployeeNameIndex(EmployeeColumns columns, Map<String, int[]> postings, Map<String, int[]> overlay, ParallelScan scan) {
+        this.columns = columns;
+        this.postings = postings;
+        this.overlay = overlay;
+        this.scan = scan;
+    }
+
+    public static EmployeeNameIndex of(List<Employee> employees) {
+        return of(EmployeeColumns.of(employees));
+    }
+
+    public static EmployeeNameIndex of(EmployeeColumns columns) {
+        return of(columns, ParallelScan.SEQUENTIAL);
+    }
+
+    public static EmployeeNameIndex of(EmployeeColumns columns, ParallelScan scan) {
+        Map<String, OrdinalList> builder = new HashMap<>();
+        char[] names = columns.lowerNames();
+        for (int ordinal = 0; ordinal < columns.slots(); ordinal++) {
+            if (!columns.isLive(ordinal)) {
+                continue;
+            }
+            for (int i = columns.nameStart(ordinal); i + GRAM <= columns.nameEnd(ordinal); i++) {
+                builder.computeIfAbsent(new String(names, i, GRAM), gram -> new OrdinalList()).add(ordinal);
+            }
+        }
+        Map<String, int[]> postings = new HashMap<>(builder.size() * 4 / 3 + 1);
+        builder.forEach((gram, ordinals) -> postings.put(gram, ordinals.toArray()));
+        return new EmployeeNameIndex(columns, postings, Map.of(), scan);
+    }
+
+    public List<Employee> search(String query) {
+        char[] needle = EmployeeColumns.fold(query);
+        if (needle.length < GRAM) {
+            return scanNames(needle);
+        }
+        List<int[]> lists = new ArrayList<>(needle.length - GRAM + 1);
+        for (int i = 0; i + GRAM <= needle.length; i++) {
+            int[] ordinals = postings(new String(needle, i, GRAM));
+            if (ordinals == null) {
+                return List.of();
+            }
+            lists.add(ordinals);
+        }
+        lists.sort(Comparator.comparingInt(ordinals -> ordinals.length));
+
+        int[] smallest = lists.get(0);
+        List<int[]> others = lists.subList(1, lists.size());
+        return scan.reduce(smallest.length, (from, to) -> {
+            List<Employee> matches = new ArrayList<>();
+            candidates:
+            for (int c = from; c < to; c++) {
+                int ordinal = smallest[c];
+                for (int[] ordinals : others) {
+                    if (Arrays.binarySearch(ordinals, ordinal) < 0) {
+                        continue candidates;
+                    }
+                }
+                // shared trigrams don't guarantee the whole needle is present, e.g. "abcxbcd" for "abcd"
+                if (columns.isLive(ordinal) && columns.nameContains(ordinal, needle)) {
+                    matches.add(columns.employee(ordinal));
+                }
+            }
+            return matches;
+        }, EmployeeNameIndex::concat);
+    }
+
+    /**
+     * Sorted ordinals whose names may contain {@code query}: the shortest posting list among its trigrams, so each
+     * still has to be checked with {@link EmployeeColumns#nameContains}. Null if the query is too short for the index.
+     */
+    public int[] candidates(String query) {
+        char[] needle = EmployeeColumns.fold(query);
+        if (needle.length < GRAM) {
+            return null;
+        }
+        int[] smallest = null;
+        for (int i = 0; i + GRAM <= needle.length; i++) {
+            int[] ordinals = postings(new String(needle, i, GRAM));
+            if (ordinals == null) {
+                return new int[0];
+            }
+            if (smallest == null || ordinals.length < smallest.length) {
+                smallest = ordinals;
+            }
+        }
+        return smallest;
+    }
+
+    public EmployeeNameIndex withAdded(Employee employee) {
+        return withAdded(columns.withAdded(employee));
+    }
+
+    /**
+     * Indexes the rows appended to this index's columns to get {@code updated}.
+     */
+    public EmployeeNameIndex withAdded(EmployeeColumns updated) {
+        Map<String, int[]> newOverlay = new HashMap<>(overlay);
+        char[] names = updated.lowerNames();
+        for (int ordinal = columns.slots(); ordinal < updated.slots(); ordinal++) {
+            for (int i = updated.nameStart(ordinal); i + GRAM <= updated.nameEnd(ordinal); i++) {
+                String gram = new String(names, i, GRAM);
+                int[] ordinals = postings(gram, newOverlay);
+                if (ordinals == null) {
+                    newOverlay.put(gram, new int[]{ordinal});
+                } else if (ordinals[ordinals.length - 1] != ordinal) {
+                    int[] appended = Arrays.copyOf(ordinals, ordinals.length + 1);
+                    appended[ordinals.length] = ordinal;
+                    newOverlay.put(gram, appended);
+                }
+            }
+        }
+        return withOverlay(updated, newOverlay);
+    }
+
+    public EmployeeNameIndex withRemoved(String id) {
+        int ordinal = columns.ordinalOf(id);
+        return ordinal < 0 ? this : withRemoved(columns.withRemoved(ordinal), ordinal);
+    }
+
+    /**
+     * Drops {@code ordinal}, which {@code updated} no longer has; rebuilds if the removal compacted the columns.
+     */
+    public EmployeeNameIndex withRemoved(EmployeeColumns updated, int ordinal) {
+        if (updated.slots() != columns.slots()) {
+            return of(updated, scan);
+        }
+        Map<String, int[]> newOverlay = new HashMap<>(overlay);
+        char[] names = columns.lowerNames();
+        for (int i = columns.nameStart(ordinal); i + GRAM <= columns.nameEnd(ordinal); i++) {
+            String gram = new String(names, i, GRAM);
+            int[] ordinals = postings(gram, newOverlay);
+            int position = ordinals == null ? -1 : Arrays.binarySearch(ordinals, ordinal);
+            if (position < 0) {
+                continue; // repeated trigram within the same name, already removed
+            }
+            if (ordinals.length == 1) {
+                newOverlay.put(gram, NO_ORDINALS);
+            } else {
+                int[] remaining = new int[ordinals.length - 1];
+                System.arraycopy(ordinals, 0, remaining, 0, position);
+                System.arraycopy(ordinals, position + 1, remaining, position, ordinals.length - position - 1);
+                newOverlay.put(gram, remaining);
+            }
+        }
+        return withOverlay(updated, newOverlay);
+    }
+
+    // merges the overlay into a new base once copying it per write would cost more than the merge amortizes to
+    private EmployeeNameIndex withOverlay(EmployeeColumns updated, Map<String, int[]> newOverlay) {
+        if (newOverlay.size() <= Math.max(MIN_OVERLAY, 4 * (int) Math.sqrt(postings.size()))) {
+            return new EmployeeNameIndex(updated, postings, newOverlay, scan);
+        }
+        Map<String, int[]> merged = new HashMap<>(postings);
+        newOverlay.forEach((gram, ordinals) -> {
+            if (ordinals.length == 0) {
+                merged.remove(gram);
+            } else {
+                merged.put(gram, ordinals);
+            }
+        });
+        return new EmployeeNameIndex(updated, merged, Map.of(), scan);
+    }
+
+    // null if no name has the gram
+    private int[] postings(String gram) {
+        return postings(gram, overlay);
+    }
+
+    private int[] postings(String gram, Map<String, int[]> overlay) {
+        int[] ordinals = overlay.get(gram);
+        if (ordinals == null) {
+            return postings.get(gram);
+        }
+        return ordinals.length == 0 ? null : ordinals;
+    }
+
+    public int size() {
+        return columns.size();
+    }
+
+    private List<Employee> scanNames(char[] needle) {
+        return scan.reduce(columns.slots(), (from, to) -> {
+            List<Employee> matches = new ArrayList<>();
+            for (int ordinal = from; ordinal < to; ordinal++) {
+                if (columns.isLive(ordinal) && columns.nameContains(ordinal, needle)) {
+                    matches.add(columns.employee(ordinal));
+                }
+            }
+            return matches;
+        }, EmployeeNameIndex::concat);
+    }
+
+    // lower holds the earlier ordinals
+    private static List<Employee> concat(List<Employee> lower, List<Employee> higher) {
+        if (higher.isEmpty()) {
+            return lower;
+        }
+        lower.addAll(higher);
+        return lower;
+    }
+}
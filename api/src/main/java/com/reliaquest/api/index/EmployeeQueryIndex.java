@@ -0,0 +1,311 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeQuery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Secondary indexes for filter queries over an {@link EmployeeColumns}: the live ordinals sorted by salary and by age,
+ * and the ordinals holding each title. A query is driven by whichever of its filters matches the fewest rows according
+ * to the indexes (a salary or age range found by binary search, a title's or title prefix's postings, or the name's
+ * trigram candidates), and only those rows are checked against the remaining filters. A query sorted by salary or age
+ * walks that index in order, stopping at the limit, when the sort field is also its most selective filter.
+ * <p>
+ * The index holds the columns' ordinals as of {@link #of}: rows removed since are skipped, rows appended since are
+ * checked by scanning that unindexed tail. It is only valid for columns that haven't compacted since, and is due for a
+ * rebuild once the tail gets long, see {@link #isStaleFor}.
+ */
+public final class EmployeeQueryIndex {
+
+    private static final int MAX_UNINDEXED = 1024;
+
+    private static final int[] NONE = new int[0];
+
+    private final int indexedSlots;
+    // ordinals in (salary, ordinal) order, and the salary of each entry for binary search; same for age
+    private final int[] bySalary;
+    private final int[] salaryKeys;
+    private final int[] byAge;
+    private final int[] ageKeys;
+    private final Map<String, int[]> byTitle;
+    private final String[] sortedTitles;
+
+    private EmployeeQueryIndex(int indexedSlots, long[] salaryEntries, long[] ageEntries, Map<String, int[]> byTitle) {
+        this.indexedSlots = indexedSlots;
+        this.bySalary = ordinals(salaryEntries);
+        this.salaryKeys = keys(salaryEntries);
+        this.byAge = ordinals(ageEntries);
+        this.ageKeys = keys(ageEntries);
+        this.byTitle = byTitle;
+        this.sortedTitles = byTitle.keySet().stream().sorted().toArray(String[]::new);
+    }
+
+    public static EmployeeQueryIndex of(EmployeeColumns columns) {
+        // (key << 32 | ordinal) sorts by key, then ordinal, for negative keys too
+        long[] salaryEntries = new long[columns.size()];
+        long[] ageEntries = new long[columns.size()];
+        Map<String, OrdinalList> titles = new HashMap<>();
+        int entry = 0;
+        for (int ordinal = 0; ordinal < columns.slots(); ordinal++) {
+            if (!columns.isLive(ordinal)) {
+                continue;
+            }
+            salaryEntries[entry] = (long) columns.salary(ordinal) << 32 | ordinal;
+            ageEntries[entry] = (long) columns.age(ordinal) << 32 | ordinal;
+            entry++;
+            String title = columns.title(ordinal);
+            if (title != null) {
+                titles.computeIfAbsent(title, key -> new OrdinalList()).add(ordinal);
+            }
+        }
+        Arrays.sort(salaryEntries);
+        Arrays.sort(ageEntries);
+        Map<String, int[]> byTitle = new HashMap<>(titles.size() * 4 / 3 + 1);
+        titles.forEach((title, ordinals) -> byTitle.put(title, ordinals.toArray()));
+        return new EmployeeQueryIndex(columns.slots(), salaryEntries, ageEntries, byTitle);
+    }
+
+    /**
+     * True if {@code columns}, which must not have compacted since this index was built, have appended enough rows
+     * that scanning them costs more than rebuilding.
+     */
+    public boolean isStaleFor(EmployeeColumns columns) {
+        return columns.slots() < indexedSlots || columns.slots() - indexedSlots > MAX_UNINDEXED;
+    }
+
+    public List<Employee> query(EmployeeColumns columns, EmployeeNameIndex nameIndex, EmployeeQuery query) {
+        Filter filter = new Filter(columns, query);
+        int limit = query.limit() == null ? Integer.MAX_VALUE : query.limit();
+        EmployeeQuery.Sort sort = query.sort();
+
+        int salaryFrom = query.minSalary() == null ? 0 : lowerBound(salaryKeys, 0, salaryKeys.length, query.minSalary());
+        int salaryTo = query.maxSalary() == null ? salaryKeys.length : upperBound(salaryKeys, salaryFrom, salaryKeys.length, query.maxSalary());
+        int ageFrom = query.minAge() == null ? 0 : lowerBound(ageKeys, 0, ageKeys.length, query.minAge());
+        int ageTo = query.maxAge() == null ? ageKeys.length : upperBound(ageKeys, ageFrom, ageKeys.length, query.maxAge());
+        // candidates in ordinal order: the smallest of the title, title prefix and name postings
+        int[] postings = null;
+        if (query.title() != null) {
+            postings = byTitle.getOrDefault(query.title(), NONE);
+        }
+        if (query.titlePrefix() != null) {
+            postings = smaller(postings, titlesStartingWith(query.titlePrefix()));
+        }
+        if (query.name() != null) {
+            postings = smaller(postings, nameIndex.candidates(query.name()));
+        }
+        int salaryCount = query.filtersSalary() ? salaryTo - salaryFrom : Integer.MAX_VALUE;
+        int ageCount = query.filtersAge() ? ageTo - ageFrom : Integer.MAX_VALUE;
+        int postingsCount = postings == null ? Integer.MAX_VALUE : postings.length;
+
+        List<Integer> matches = new ArrayList<>();
+        boolean inOrder;
+        if (sort != null && (sort.bySalary() ? salaryTo - salaryFrom <= Math.min(ageCount, postingsCount) : ageTo - ageFrom <= Math.min(salaryCount, postingsCount))) {
+            // the sort index is also the cheapest way in: walk it in order and stop at the limit
+            if (sort.bySalary()) {
+                walkSorted(bySalary, salaryKeys, salaryFrom, salaryTo, sort.descending(), filter, limit, matches);
+            } else {
+                walkSorted(byAge, ageKeys, ageFrom, ageTo, sort.descending(), filter, limit, matches);
+            }
+            inOrder = true;
+        } else if (salaryCount < Math.min(ageCount, postingsCount)) {
+            collect(bySalary, salaryFrom, salaryTo, filter, matches);
+            inOrder = false;
+        } else if (ageCount < postingsCount) {
+            collect(byAge, ageFrom, ageTo, filter, matches);
+            inOrder = false;
+        } else {
+            // in ordinal order, so an unsorted query can stop at the limit
+            int stopAt = sort == null ? limit : Integer.MAX_VALUE;
+            if (postings != null) {
+                for (int i = 0; i < postings.length && postings[i] < indexedSlots && matches.size() < stopAt; i++) {
+                    if (filter.test(postings[i])) {
+                        matches.add(postings[i]);
+                    }
+                }
+            } else {
+                for (int ordinal = 0; ordinal < indexedSlots && matches.size() < stopAt; ordinal++) {
+                    if (filter.test(ordinal)) {
+                        matches.add(ordinal);
+                    }
+                }
+            }
+            inOrder = sort == null;
+        }
+
+        // rows appended since the index was built
+        int indexedMatches = matches.size();
+        for (int ordinal = indexedSlots; ordinal < columns.slots(); ordinal++) {
+            if (filter.test(ordinal)) {
+                matches.add(ordinal);
+            }
+        }
+        if (!inOrder || (sort != null && matches.size() > indexedMatches)) {
+            matches.sort(order(columns, sort));
+        }
+        List<Integer> selected = matches.size() > limit ? matches.subList(0, limit) : matches;
+        return selected.stream().map(columns::employee).toList();
+    }
+
+    private int[] titlesStartingWith(String prefix) {
+        int from = lowerBound(sortedTitles, prefix);
+        List<int[]> lists = new ArrayList<>();
+        int total = 0;
+        for (int i = from; i < sortedTitles.length && sortedTitles[i].startsWith(prefix); i++) {
+            int[] ordinals = byTitle.get(sortedTitles[i]);
+            lists.add(ordinals);
+            total += ordinals.length;
+        }
+        if (lists.size() == 1) {
+            return lists.get(0);
+        }
+        int[] merged = new int[total];
+        int position = 0;
+        for (int[] ordinals : lists) {
+            System.arraycopy(ordinals, 0, merged, position, ordinals.length);
+            position += ordinals.length;
+        }
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    // ties in ordinal order in both directions, as a stable sort of the list would give
+    private static void walkSorted(int[] ordinals, int[] keys, int from, int to, boolean descending, Filter filter, int limit, List<Integer> matches) {
+        if (!descending) {
+            for (int i = from; i < to && matches.size() < limit; i++) {
+                if (filter.test(ordinals[i])) {
+                    matches.add(ordinals[i]);
+                }
+            }
+            return;
+        }
+        int end = to;
+        while (end > from && matches.size() < limit) {
+            int start = lowerBound(keys, from, end, keys[end - 1]);
+            for (int i = start; i < end && matches.size() < limit; i++) {
+                if (filter.test(ordinals[i])) {
+                    matches.add(ordinals[i]);
+                }
+            }
+            end = start;
+        }
+    }
+
+    private static void collect(int[] ordinals, int from, int to, Filter filter, List<Integer> matches) {
+        for (int i = from; i < to; i++) {
+            if (filter.test(ordinals[i])) {
+                matches.add(ordinals[i]);
+            }
+        }
+    }
+
+    private static Comparator<Integer> order(EmployeeColumns columns, EmployeeQuery.Sort sort) {
+        if (sort == null) {
+            return Comparator.naturalOrder();
+        }
+        Comparator<Integer> byKey = Comparator.comparingInt(sort.bySalary() ? columns::salary : columns::age);
+        return (sort.descending() ? byKey.reversed() : byKey).thenComparing(Comparator.naturalOrder());
+    }
+
+    private static int[] smaller(int[] current, int[] candidate) {
+        return candidate != null && (current == null || candidate.length < current.length) ? candidate : current;
+    }
+
+    // first index in [from, to) whose key is >= value
+    private static int lowerBound(int[] keys, int from, int to, int value) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // first index in [from, to) whose key is > value
+    private static int upperBound(int[] keys, int from, int to, int value) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBound(String[] sorted, String value) {
+        int position = Arrays.binarySearch(sorted, value);
+        return position < 0 ? -position - 1 : position;
+    }
+
+    private static int[] ordinals(long[] entries) {
+        int[] ordinals = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            ordinals[i] = (int) entries[i];
+        }
+        return ordinals;
+    }
+
+    private static int[] keys(long[] entries) {
+        int[] keys = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            keys[i] = (int) (entries[i] >> 32);
+        }
+        return keys;
+    }
+
+    // every filter of the query, checked against one row
+    private static final class Filter {
+
+        private final EmployeeColumns columns;
+        private final int minSalary;
+        private final int maxSalary;
+        private final int minAge;
+        private final int maxAge;
+        private final String title;
+        private final String titlePrefix;
+        private final char[] name;
+
+        Filter(EmployeeColumns columns, EmployeeQuery query) {
+            this.columns = columns;
+            this.minSalary = query.minSalary() == null ? Integer.MIN_VALUE : query.minSalary();
+            this.maxSalary = query.maxSalary() == null ? Integer.MAX_VALUE : query.maxSalary();
+            this.minAge = query.minAge() == null ? Integer.MIN_VALUE : query.minAge();
+            this.maxAge = query.maxAge() == null ? Integer.MAX_VALUE : query.maxAge();
+            this.title = query.title();
+            this.titlePrefix = query.titlePrefix();
+            this.name = query.name() == null ? null : EmployeeColumns.fold(query.name());
+        }
+
+        boolean test(int ordinal) {
+            if (!columns.isLive(ordinal)) {
+                return false;
+            }
+            int salary = columns.salary(ordinal);
+            int age = columns.age(ordinal);
+            if (salary < minSalary || salary > maxSalary || age < minAge || age > maxAge) {
+                return false;
+            }
+            if (title != null || titlePrefix != null) {
+                String rowTitle = columns.title(ordinal);
+                if (rowTitle == null || (title != null && !title.equals(rowTitle)) || (titlePrefix != null && !rowTitle.startsWith(titlePrefix))) {
+                    return false;
+                }
+            }
+            return name == null || columns.nameContains(ordinal, name);
+        }
+    }
+}
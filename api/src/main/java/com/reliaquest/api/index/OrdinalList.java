@@ -0,0 +1,25 @@
+package com.reliaquest.api.index;
+
+import java.util.Arrays;
+
+// growable list of ascending ordinals, as posting lists are built
+final class OrdinalList {
+
+    private int[] values = new int[4];
+    private int size;
+
+    void add(int ordinal) {
+        // a name repeating a trigram adds the same ordinal twice in a row
+        if (size > 0 && values[size - 1] == ordinal) {
+            return;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = ordinal;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,114 @@
+package com.reliaquest.api.index;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Splits scans over an {@link EmployeeColumns} ordinal range across a dedicated fork-join pool once the range holds at
+ * least {@code employee.parallel.threshold} slots; smaller ranges, where forking costs more than it saves, are scanned
+ * on the calling thread. The pool is separate from the common pool so parallel streams elsewhere in the JVM can't
+ * starve snapshot builds and searches, nor the other way round.
+ */
+@Component
+public class ParallelScan {
+
+    /**
+     * Always scans on the calling thread.
+     */
+    public static final ParallelScan SEQUENTIAL = new ParallelScan();
+
+    // below this a chunk isn't worth a task of its own
+    private static final int MIN_CHUNK = 8192;
+
+    private final int threshold;
+    private final int parallelism;
+    private final ForkJoinPool pool;
+
+    private ParallelScan() {
+        this.threshold = Integer.MAX_VALUE;
+        this.parallelism = 1;
+        this.pool = null;
+    }
+
+    // parallelism 0 means one worker per available processor
+    @Autowired
+    public ParallelScan(@Value("${employee.parallel.threshold:50000}") int threshold,
+                        @Value("${employee.parallel.parallelism:0}") int parallelism) {
+        if (threshold < 1 || parallelism < 0) {
+            throw new IllegalArgumentException("employee.parallel.threshold must be positive and employee.parallel.parallelism non-negative");
+        }
+        this.threshold = threshold;
+        this.parallelism = parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+        this.pool = this.parallelism < 2 ? null : new ForkJoinPool(this.parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("employee-scan-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    public boolean isParallel(int slots) {
+        return pool != null && slots >= threshold;
+    }
+
+    /**
+     * Applies {@code leaf} to consecutive sub-ranges of {@code [0, slots)} and folds the results with {@code merge},
+     * always as {@code merge(lower range, higher range)}, so order-sensitive results come out as a sequential scan's.
+     */
+    public <R> R reduce(int slots, RangeScan<R> leaf, BinaryOperator<R> merge) {
+        if (!isParallel(slots)) {
+            return leaf.scan(0, slots);
+        }
+        int chunk = Math.max(MIN_CHUNK, slots / (parallelism * 4));
+        return pool.invoke(new RangeTask<>(0, slots, chunk, leaf, merge));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    public interface RangeScan<R> {
+
+        R scan(int from, int to);
+    }
+
+    private static final class RangeTask<R> extends RecursiveTask<R> {
+
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final RangeScan<R> leaf;
+        private final BinaryOperator<R> merge;
+
+        RangeTask(int from, int to, int chunk, RangeScan<R> leaf, BinaryOperator<R> merge) {
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.leaf = leaf;
+            this.merge = merge;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from <= chunk) {
+                return leaf.scan(from, to);
+            }
+            int middle = (from + to) >>> 1;
+            RangeTask<R> lower = new RangeTask<>(from, middle, chunk, leaf, merge);
+            lower.fork();
+            R higher = new RangeTask<>(middle, to, chunk, leaf, merge).compute();
+            return merge.apply(lower.join(), higher);
+        }
+    }
+}
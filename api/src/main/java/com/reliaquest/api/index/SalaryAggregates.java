@@ -0,0 +1,176 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.model.Employee;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Salary figures computed once per employee snapshot, from its salary column, so the salary endpoints don't have to
+ * scan or sort the list.
+ * Top earners are kept in salary order, ties in list order, matching a stable sort of the whole list. Large snapshots
+ * are aggregated in ordinal ranges on a {@link ParallelScan}, each range keeping its own {@link TopK} selection;
+ * merging two ranges' selections keeps the first K of both, so the result is the same as a single pass.
+ */
+public final class SalaryAggregates {
+
+    public static final int DEFAULT_TOP_K = 10;
+
+    private static final SalaryAggregates EMPTY = new SalaryAggregates(0, 0L, 0, 0, List.of(), DEFAULT_TOP_K, ParallelScan.SEQUENTIAL);
+
+    private final int count;
+    private final long sum;
+    private final int min;
+    private final int max;
+    private final List<Employee> topEarners;
+    private final List<String> topEarnerNames;
+    private final int topK;
+    // used again when a removal forces a rebuild
+    private final ParallelScan scan;
+
+    private SalaryAggregates(int count, long sum, int min, int max, List<Employee> topEarners, int topK, ParallelScan scan) {
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+        this.topEarners = topEarners;
+        this.topEarnerNames = topEarners.stream().map(Employee::getName).toList();
+        this.topK = topK;
+        this.scan = scan;
+    }
+
+    public static SalaryAggregates of(List<Employee> employees) {
+        return of(employees, DEFAULT_TOP_K);
+    }
+
+    public static SalaryAggregates of(List<Employee> employees, int topK) {
+        return of(EmployeeColumns.of(employees), topK);
+    }
+
+    public static SalaryAggregates of(EmployeeColumns columns) {
+        return of(columns, DEFAULT_TOP_K);
+    }
+
+    public static SalaryAggregates of(EmployeeColumns columns, int topK) {
+        return of(columns, topK, ParallelScan.SEQUENTIAL);
+    }
+
+    // one pass over the salary column, split across the scan's pool for large snapshots; only the top earners are
+    // materialized
+    public static SalaryAggregates of(EmployeeColumns columns, int topK, ParallelScan scan) {
+        if (columns.size() == 0) {
+            return topK == DEFAULT_TOP_K && scan == ParallelScan.SEQUENTIAL ? EMPTY : new SalaryAggregates(0, 0L, 0, 0, List.of(), topK, scan);
+        }
+        Partial total = scan.reduce(columns.slots(), (from, to) -> Partial.scan(columns, from, to, topK), Partial::merge);
+        List<Employee> topEarners = Arrays.stream(total.top.ordinals()).mapToObj(columns::employee).toList();
+        return new SalaryAggregates(columns.size(), total.sum, total.min, total.max, topEarners, topK, scan);
+    }
+
+    /**
+     * O(K) update for an employee appended to the end of the list.
+     */
+    public SalaryAggregates withAdded(Employee employee) {
+        int salary = employee.getSalary();
+        List<Employee> top = topEarners;
+        if (topK > 0 && (top.size() < topK || salary > top.get(top.size() - 1).getSalary())) {
+            List<Employee> updated = new ArrayList<>(top.size() + 1);
+            updated.addAll(top);
+            int position = 0;
+            while (position < updated.size() && updated.get(position).getSalary() >= salary) {
+                position++;
+            }
+            updated.add(position, employee);
+            if (updated.size() > topK) {
+                updated.remove(updated.size() - 1);
+            }
+            top = Collections.unmodifiableList(updated);
+        }
+        return new SalaryAggregates(count + 1, sum + salary, count == 0 ? salary : Math.min(min, salary), count == 0 ? salary : Math.max(max, salary), top, topK, scan);
+    }
+
+    /**
+     * O(1) when the removed employee is neither an extreme nor a top earner, otherwise rebuilt from {@code remaining}.
+     */
+    public SalaryAggregates withRemoved(Employee employee, List<Employee> remaining) {
+        return needsRebuildWithout(employee) ? of(EmployeeColumns.of(remaining), topK, scan) : without(employee);
+    }
+
+    public SalaryAggregates withRemoved(Employee employee, EmployeeColumns remaining) {
+        return needsRebuildWithout(employee) ? of(remaining, topK, scan) : without(employee);
+    }
+
+    private boolean needsRebuildWithout(Employee employee) {
+        int salary = employee.getSalary();
+        boolean topEarner = topEarners.stream().anyMatch(emp -> Objects.equals(emp.getId(), employee.getId()));
+        return topEarner || salary == min || salary == max || count <= 1;
+    }
+
+    private SalaryAggregates without(Employee employee) {
+        return new SalaryAggregates(count - 1, sum - employee.getSalary(), min, max, topEarners, topK, scan);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public double getAverage() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    public List<Employee> getTopEarners() {
+        return topEarners;
+    }
+
+    public List<String> getTopEarnerNames() {
+        return topEarnerNames;
+    }
+
+    // aggregates of one ordinal range
+    private static final class Partial {
+
+        private int count;
+        private long sum;
+        private int min = Integer.MAX_VALUE;
+        private int max = Integer.MIN_VALUE;
+        private TopK.Selection top;
+
+        static Partial scan(EmployeeColumns columns, int from, int to, int topK) {
+            Partial partial = new Partial();
+            partial.top = new TopK.Selection(topK, true);
+            for (int i = from; i < to; i++) {
+                if (!columns.isLive(i)) {
+                    continue;
+                }
+                int salary = columns.salary(i);
+                partial.count++;
+                partial.sum += salary;
+                partial.min = Math.min(partial.min, salary);
+                partial.max = Math.max(partial.max, salary);
+                partial.top.offer(salary, i);
+            }
+            return partial;
+        }
+
+        // other covers the ordinals after this one's
+        Partial merge(Partial other) {
+            Partial merged = new Partial();
+            merged.count = count + other.count;
+            merged.sum = sum + other.sum;
+            merged.min = Math.min(min, other.min);
+            merged.max = Math.max(max, other.max);
+            merged.top = top.merge(other.top);
+            return merged;
+        }
+    }
+}
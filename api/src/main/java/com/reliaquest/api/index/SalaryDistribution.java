@@ -0,0 +1,109 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.SalaryStatistics;
+import com.reliaquest.api.model.SalarySummary;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A {@link SalarySketch} over every employee and one per title, kept up to date as employees are added and removed:
+ * a write touches the overall sketch and its title's, each in time bounded by the salary range. Removing a group's
+ * min or max rescans just that group. {@link #summarize()} reads the sketches alone, and only sketches changed since
+ * the last summary compute theirs again.
+ */
+public final class SalaryDistribution {
+
+    private final SalarySketch overall;
+    private final Map<String, SalarySketch> byTitle;
+    private volatile SalaryStatistics summary;
+
+    private SalaryDistribution(SalarySketch overall, Map<String, SalarySketch> byTitle) {
+        this.overall = overall;
+        this.byTitle = byTitle;
+    }
+
+    public static SalaryDistribution of(EmployeeColumns columns) {
+        SalarySketch.Builder all = new SalarySketch.Builder();
+        Map<String, SalarySketch.Builder> titles = new HashMap<>();
+        for (int ordinal = 0; ordinal < columns.slots(); ordinal++) {
+            if (!columns.isLive(ordinal)) {
+                continue;
+            }
+            int salary = columns.salary(ordinal);
+            all.add(salary);
+            String title = columns.title(ordinal);
+            if (title != null) {
+                titles.computeIfAbsent(title, key -> new SalarySketch.Builder()).add(salary);
+            }
+        }
+        Map<String, SalarySketch> byTitle = new HashMap<>(titles.size() * 4 / 3 + 1);
+        titles.forEach((title, builder) -> byTitle.put(title, builder.build()));
+        return new SalaryDistribution(all.build(), byTitle);
+    }
+
+    public SalaryDistribution withAdded(Employee employee) {
+        int salary = employee.getSalary();
+        String title = employee.getTitle();
+        if (title == null) {
+            return new SalaryDistribution(overall.with(salary), byTitle);
+        }
+        Map<String, SalarySketch> newByTitle = new HashMap<>(byTitle);
+        newByTitle.put(title, byTitle.getOrDefault(title, SalarySketch.EMPTY).with(salary));
+        return new SalaryDistribution(overall.with(salary), newByTitle);
+    }
+
+    /**
+     * Removes an employee that {@code remaining} no longer holds, rescanning it only if the employee was an extreme.
+     */
+    public SalaryDistribution withRemoved(Employee employee, EmployeeColumns remaining) {
+        int salary = employee.getSalary();
+        String title = employee.getTitle();
+        SalarySketch newOverall = overall.needsRebuildWithout(salary) ? sketchOf(remaining, null) : overall.without(salary);
+        SalarySketch group = title == null ? null : byTitle.get(title);
+        if (group == null) {
+            return new SalaryDistribution(newOverall, byTitle);
+        }
+        Map<String, SalarySketch> newByTitle = new HashMap<>(byTitle);
+        SalarySketch newGroup = group.needsRebuildWithout(salary) ? sketchOf(remaining, title) : group.without(salary);
+        if (newGroup.getCount() == 0) {
+            newByTitle.remove(title);
+        } else {
+            newByTitle.put(title, newGroup);
+        }
+        return new SalaryDistribution(newOverall, newByTitle);
+    }
+
+    public SalarySketch getOverall() {
+        return overall;
+    }
+
+    public SalarySketch getByTitle(String title) {
+        return byTitle.getOrDefault(title, SalarySketch.EMPTY);
+    }
+
+    public SalaryStatistics summarize() {
+        SalaryStatistics statistics = summary;
+        if (statistics == null) {
+            Map<String, SalarySummary> titles = new TreeMap<>();
+            byTitle.forEach((title, sketch) -> titles.put(title, sketch.summarize()));
+            statistics = new SalaryStatistics(overall.summarize(), Collections.unmodifiableMap(titles), SalarySketch.RELATIVE_ACCURACY);
+            summary = statistics;
+        }
+        return statistics;
+    }
+
+    // title null: every employee
+    private static SalarySketch sketchOf(EmployeeColumns columns, String title) {
+        SalarySketch.Builder builder = new SalarySketch.Builder();
+        for (int ordinal = 0; ordinal < columns.slots(); ordinal++) {
+            if (columns.isLive(ordinal) && (title == null || title.equals(columns.title(ordinal)))) {
+                builder.add(columns.salary(ordinal));
+            }
+        }
+        return builder.build();
+    }
+}
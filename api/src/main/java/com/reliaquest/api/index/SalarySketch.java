@@ -0,0 +1,235 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.model.SalarySummary;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Salary distribution of a group of employees: exact count, sum, sum of squares, min and max, plus a DDSketch-style
+ * histogram for percentiles. Values are counted in logarithmic buckets whose bounds grow by a factor of
+ * {@code (1 + a) / (1 - a)}, so any percentile is answered within relative error {@link #RELATIVE_ACCURACY} of a
+ * salary actually in the group, from a number of buckets that depends on the salary range, not on headcount.
+ * <p>
+ * Unlike t-digest or KLL, bucket counts can be decremented, so employees can be removed as well as added. Instances
+ * are immutable; {@link #with} and {@link #without} copy the buckets. Removing the current min or max leaves the sketch
+ * unable to tell the new one: {@link #needsRebuildWithout} says when the group has to be rebuilt instead.
+ */
+public final class SalarySketch {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private static final double[] PERCENTILES = {0.25, 0.5, 0.75, 0.9, 0.95, 0.99};
+
+    public static final SalarySketch EMPTY = new SalarySketch(0, 0L, 0.0, 0, 0, new Buckets(), new Buckets(), 0);
+
+    private final long count;
+    private final long sum;
+    // a double: a long would overflow on a handful of squared top salaries
+    private final double sumOfSquares;
+    private final int min;
+    private final int max;
+    private final Buckets positive;
+    // negative salaries by the bucket of their absolute value
+    private final Buckets negative;
+    private final long zeros;
+    private volatile SalarySummary summary;
+
+    private SalarySketch(long count, long sum, double sumOfSquares, int min, int max, Buckets positive, Buckets negative, long zeros) {
+        this.count = count;
+        this.sum = sum;
+        this.sumOfSquares = sumOfSquares;
+        this.min = min;
+        this.max = max;
+        this.positive = positive;
+        this.negative = negative;
+        this.zeros = zeros;
+    }
+
+    public SalarySketch with(int salary) {
+        Buckets newPositive = salary > 0 ? positive.copyAdding(bucket(salary), 1) : positive;
+        Buckets newNegative = salary < 0 ? negative.copyAdding(bucket(-(long) salary), 1) : negative;
+        return new SalarySketch(count + 1, sum + salary, sumOfSquares + (double) salary * salary,
+                count == 0 ? salary : Math.min(min, salary), count == 0 ? salary : Math.max(max, salary),
+                newPositive, newNegative, zeros + (salary == 0 ? 1 : 0));
+    }
+
+    /**
+     * Removes a salary previously added; only valid while {@link #needsRebuildWithout} is false for it.
+     */
+    public SalarySketch without(int salary) {
+        if (count == 1) {
+            return EMPTY;
+        }
+        Buckets newPositive = salary > 0 ? positive.copyAdding(bucket(salary), -1) : positive;
+        Buckets newNegative = salary < 0 ? negative.copyAdding(bucket(-(long) salary), -1) : negative;
+        return new SalarySketch(count - 1, sum - salary, sumOfSquares - (double) salary * salary, min, max,
+                newPositive, newNegative, zeros - (salary == 0 ? 1 : 0));
+    }
+
+    public boolean needsRebuildWithout(int salary) {
+        return count > 1 && (salary == min || salary == max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    // population standard deviation
+    public double getStandardDeviation() {
+        if (count == 0) {
+            return 0;
+        }
+        double mean = getMean();
+        return Math.sqrt(Math.max(0, sumOfSquares / count - mean * mean));
+    }
+
+    /**
+     * The salary at quantile {@code q} (0 to 1), within {@link #RELATIVE_ACCURACY}; exact at 0 and 1.
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return 0;
+        }
+        if (q <= 0) {
+            return min;
+        }
+        if (q >= 1) {
+            return max;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        long seen = 0;
+        // most negative first: highest negative bucket down
+        for (int i = negative.counts.length - 1; i >= 0; i--) {
+            seen += negative.counts[i];
+            if (seen > rank) {
+                return clamp(-value(negative.offset + i));
+            }
+        }
+        seen += zeros;
+        if (seen > rank) {
+            return 0;
+        }
+        for (int i = 0; i < positive.counts.length; i++) {
+            seen += positive.counts[i];
+            if (seen > rank) {
+                return clamp(value(positive.offset + i));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * The exact figures and the p25 to p99 percentiles, computed once per instance.
+     */
+    public SalarySummary summarize() {
+        SalarySummary computed = summary;
+        if (computed == null) {
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (double q : PERCENTILES) {
+                percentiles.put("p" + Math.round(q * 100), quantile(q));
+            }
+            computed = new SalarySummary(count, min, max, getMean(), getStandardDeviation(), Collections.unmodifiableMap(percentiles));
+            summary = computed;
+        }
+        return computed;
+    }
+
+    private double clamp(double value) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static int bucket(long value) {
+        return (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+
+    // the point of bucket (gamma^(i-1), gamma^i] with the same relative distance to both bounds
+    private static double value(int bucket) {
+        return 2 * Math.pow(GAMMA, bucket) / (GAMMA + 1);
+    }
+
+    /**
+     * Accumulates salaries in place, for building a sketch from scratch in one pass.
+     */
+    public static final class Builder {
+
+        private long count;
+        private long sum;
+        private double sumOfSquares;
+        private int min;
+        private int max;
+        private final Buckets positive = new Buckets();
+        private final Buckets negative = new Buckets();
+        private long zeros;
+
+        public Builder add(int salary) {
+            min = count == 0 ? salary : Math.min(min, salary);
+            max = count == 0 ? salary : Math.max(max, salary);
+            count++;
+            sum += salary;
+            sumOfSquares += (double) salary * salary;
+            if (salary > 0) {
+                positive.add(bucket(salary), 1);
+            } else if (salary < 0) {
+                negative.add(bucket(-(long) salary), 1);
+            } else {
+                zeros++;
+            }
+            return this;
+        }
+
+        public SalarySketch build() {
+            return count == 0 ? EMPTY : new SalarySketch(count, sum, sumOfSquares, min, max, positive.copyAdding(0, 0), negative.copyAdding(0, 0), zeros);
+        }
+    }
+
+    // counts of the contiguous bucket indexes offset .. offset + counts.length - 1
+    private static final class Buckets {
+
+        private int offset;
+        private long[] counts = new long[0];
+
+        // copyAdding(i, 0) is a plain copy
+        Buckets copyAdding(int bucket, long delta) {
+            Buckets copy = new Buckets();
+            copy.offset = offset;
+            copy.counts = counts.clone();
+            if (delta != 0) {
+                copy.add(bucket, delta);
+            }
+            return copy;
+        }
+
+        void add(int bucket, long delta) {
+            if (counts.length == 0) {
+                offset = bucket;
+                counts = new long[1];
+            } else if (bucket < offset) {
+                long[] grown = new long[counts.length + offset - bucket];
+                System.arraycopy(counts, 0, grown, offset - bucket, counts.length);
+                counts = grown;
+                offset = bucket;
+            } else if (bucket >= offset + counts.length) {
+                counts = Arrays.copyOf(counts, bucket - offset + 1);
+            }
+            counts[bucket - offset] += delta;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.model.EmployeeQuery;
+
+import java.util.Arrays;
+
+/**
+ * Bounded-heap selection of the first K rows of an {@link EmployeeColumns} in salary or age order, in O(n log K)
+ * without sorting the rest. Ties keep list order, so the result is the first K of a stable sort of the whole list.
+ * <p>
+ * Each candidate is packed into one {@code long} whose natural order is the selection order: the (possibly inverted)
+ * key in the high half, the inverted ordinal in the low half. The heap is a plain {@code long[]}, nothing is boxed, and
+ * ranges scanned on a {@link ParallelScan} merge their selections, keeping K entries.
+ */
+public final class TopK {
+
+    private TopK() {
+    }
+
+    /**
+     * Ordinals of the first {@code k} live rows in {@code order}, first to last.
+     */
+    public static int[] select(EmployeeColumns columns, EmployeeQuery.Sort order, int k, ParallelScan scan) {
+        int limit = Math.min(k, columns.size());
+        boolean bySalary = order.bySalary();
+        Selection selection = scan.reduce(columns.slots(), (from, to) -> {
+            Selection range = new Selection(limit, order.descending());
+            for (int i = from; i < to; i++) {
+                if (columns.isLive(i)) {
+                    range.offer(bySalary ? columns.salary(i) : columns.age(i), i);
+                }
+            }
+            return range;
+        }, Selection::merge);
+        return selection.ordinals();
+    }
+
+    /**
+     * The best K (key, ordinal) pairs offered so far: highest keys first when {@code highest}, lowest otherwise, lower
+     * ordinals first among equal keys.
+     */
+    static final class Selection {
+
+        private final int k;
+        private final boolean highest;
+        // min-heap of packed scores: the root is the weakest entry kept
+        private long[] heap;
+        private int size;
+
+        Selection(int k, boolean highest) {
+            this.k = k;
+            this.highest = highest;
+            this.heap = new long[Math.min(k, 64)];
+        }
+
+        void offer(int key, int ordinal) {
+            if (k == 0) {
+                return;
+            }
+            long score = score(key, ordinal);
+            if (size < k) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, Math.min(k, size * 2));
+                }
+                heap[size] = score;
+                siftUp(size++);
+            } else if (score > heap[0]) {
+                heap[0] = score;
+                siftDown(0);
+            }
+        }
+
+        // other holds ordinals after this one's; only the first K of both survive
+        Selection merge(Selection other) {
+            long[] mine = bestFirst();
+            long[] theirs = other.bestFirst();
+            Selection merged = new Selection(k, highest);
+            merged.heap = new long[Math.min(k, mine.length + theirs.length)];
+            // filled from the back, weakest at the root: ascending order is a valid min-heap
+            int i = 0;
+            int j = 0;
+            for (int position = merged.heap.length - 1; position >= 0; position--) {
+                merged.heap[position] = j == theirs.length || (i < mine.length && mine[i] > theirs[j]) ? mine[i++] : theirs[j++];
+            }
+            merged.size = merged.heap.length;
+            return merged;
+        }
+
+        int[] ordinals() {
+            long[] scores = bestFirst();
+            int[] ordinals = new int[scores.length];
+            for (int i = 0; i < scores.length; i++) {
+                ordinals[i] = Integer.MAX_VALUE - (int) scores[i];
+            }
+            return ordinals;
+        }
+
+        // scores are distinct, ordinals being unique
+        private long[] bestFirst() {
+            long[] scores = Arrays.copyOf(heap, size);
+            Arrays.sort(scores);
+            for (int i = 0, j = scores.length - 1; i < j; i++, j--) {
+                long swap = scores[i];
+                scores[i] = scores[j];
+                scores[j] = swap;
+            }
+            return scores;
+        }
+
+        // higher is better; ~key reverses int order without overflowing
+        private long score(int key, int ordinal) {
+            return (long) (highest ? key : ~key) << 32 | (Integer.MAX_VALUE - ordinal);
+        }
+
+        private void siftUp(int index) {
+            long value = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (heap[parent] <= value) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = value;
+        }
+
+        private void siftDown(int index) {
+            long value = heap[index];
+            int half = size >>> 1;
+            while (index < half) {
+                int child = 2 * index + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (value <= heap[child]) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = value;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.reliaquest.api.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Result for one entry of a bulk create or delete, reported in request order.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkOutcome(String id, Status status, Employee employee, String error) {
+
+    public enum Status {
+        CREATED, DELETED, NOT_FOUND, INVALID, FAILED
+    }
+
+    public static BulkOutcome created(Employee employee) {
+        return new BulkOutcome(employee.getId(), Status.CREATED, employee, null);
+    }
+
+    public static BulkOutcome deleted(String id) {
+        return new BulkOutcome(id, Status.DELETED, null, null);
+    }
+
+    public static BulkOutcome notFound(String id) {
+        return new BulkOutcome(id, Status.NOT_FOUND, null, null);
+    }
+
+    public static BulkOutcome invalid(String id, String error) {
+        return new BulkOutcome(id, Status.INVALID, null, error);
+    }
+
+    public static BulkOutcome failed(String id, String error) {
+        return new BulkOutcome(id, Status.FAILED, null, error);
+    }
+}
@@ -5,6 +5,8 @@ import jakarta.validation.constraints.Min;
 import org.hibernate.validator.constraints.Email;
 import org.hibernate.validator.constraints.NotBlank;
 
+import java.util.Objects;
+
 public class Employee {
 
 
@@ -83,5 +85,23 @@ public class Employee {
     public void setEmail(String email) {
         this.email = email;
     }
+
+    // snapshots hand out a fresh copy per read, so two reads of the same employee are equal but not identical
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Employee employee)) {
+            return false;
+        }
+        return salary == employee.salary && age == employee.age && Objects.equals(id, employee.id) && Objects.equals(name, employee.name)
+                && Objects.equals(title, employee.title) && Objects.equals(email, employee.email);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, salary, age, title, email);
+    }
     // Getters and Setters...
 }
@@ -0,0 +1,9 @@
+package com.reliaquest.api.model;
+
+import java.util.List;
+
+/**
+ * Result of a batch lookup: the employees found, in request order, and the ids that matched no one.
+ */
+public record EmployeeBatch(List<Employee> employees, List<String> notFound) {
+}
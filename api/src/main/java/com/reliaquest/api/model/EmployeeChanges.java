@@ -0,0 +1,18 @@
+package com.reliaquest.api.model;
+
+import java.util.List;
+
+/**
+ * Creates and deletes upstream applied after a change-feed version, oldest first, and the version they bring the
+ * reader up to.
+ */
+public record EmployeeChanges(List<Change> changes, String version) {
+
+    public record Change(Type type, Employee employee) {
+    }
+
+    public enum Type {
+        CREATED,
+        DELETED
+    }
+}
@@ -0,0 +1,9 @@
+package com.reliaquest.api.model;
+
+import java.util.List;
+
+/**
+ * One page of the employee listing; {@code nextCursor} is null on the last page.
+ */
+public record EmployeePage(List<Employee> employees, String nextCursor) {
+}
@@ -0,0 +1,70 @@
+package com.reliaquest.api.model;
+
+/**
+ * Filters for {@code GET /api/v1/employee/query}; null fields don't filter. Ranges are inclusive, {@code title} matches
+ * exactly and {@code titlePrefix} as a case-sensitive prefix, {@code name} as a case-insensitive substring. Without a
+ * {@code sort} results come in list order; {@code limit} caps how many come back.
+ */
+public record EmployeeQuery(Integer minSalary, Integer maxSalary, Integer minAge, Integer maxAge, String title,
+                            String titlePrefix, String name, Sort sort, Integer limit) {
+
+    public EmployeeQuery {
+        if (minSalary != null && maxSalary != null && minSalary > maxSalary) {
+            throw new IllegalArgumentException("minSalary must not exceed maxSalary.");
+        }
+        if (minAge != null && maxAge != null && minAge > maxAge) {
+            throw new IllegalArgumentException("minAge must not exceed maxAge.");
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1.");
+        }
+        if (name != null && name.isBlank()) {
+            throw new IllegalArgumentException("Employee name cannot be null or empty or malformed.");
+        }
+    }
+
+    public boolean filtersSalary() {
+        return minSalary != null || maxSalary != null;
+    }
+
+    public boolean filtersAge() {
+        return minAge != null || maxAge != null;
+    }
+
+    /**
+     * Result order; ties keep list order.
+     */
+    public enum Sort {
+        SALARY_ASC, SALARY_DESC, AGE_ASC, AGE_DESC;
+
+        // "salary" or "age", descending with a leading '-'
+        public static Sort parse(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            return switch (value.trim()) {
+                case "salary" -> SALARY_ASC;
+                case "-salary" -> SALARY_DESC;
+                case "age" -> AGE_ASC;
+                case "-age" -> AGE_DESC;
+                default -> throw new IllegalArgumentException("sort must be one of salary, -salary, age, -age.");
+            };
+        }
+
+        public static Sort of(String field, boolean descending) {
+            return switch (field == null ? "" : field.trim()) {
+                case "salary" -> descending ? SALARY_DESC : SALARY_ASC;
+                case "age" -> descending ? AGE_DESC : AGE_ASC;
+                default -> throw new IllegalArgumentException("by must be salary or age.");
+            };
+        }
+
+        public boolean bySalary() {
+            return this == SALARY_ASC || this == SALARY_DESC;
+        }
+
+        public boolean descending() {
+            return this == SALARY_DESC || this == AGE_DESC;
+        }
+    }
+}
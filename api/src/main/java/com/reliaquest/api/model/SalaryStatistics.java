@@ -0,0 +1,9 @@
+package com.reliaquest.api.model;
+
+import java.util.Map;
+
+/**
+ * Salary figures for all employees and per title, in title order; employees without a title only count overall.
+ */
+public record SalaryStatistics(SalarySummary overall, Map<String, SalarySummary> byTitle, double relativeAccuracy) {
+}
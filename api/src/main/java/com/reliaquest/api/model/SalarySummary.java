@@ -0,0 +1,10 @@
+package com.reliaquest.api.model;
+
+import java.util.Map;
+
+/**
+ * Salary figures for a group of employees. Count, min, max, mean and (population) standard deviation are exact;
+ * {@code percentiles} ("p50", "p90", ...) are estimates within {@link SalaryStatistics#relativeAccuracy()}.
+ */
+public record SalarySummary(long count, int min, int max, double mean, double standardDeviation, Map<String, Double> percentiles) {
+}
@@ -1,30 +1,286 @@
 package com.reliaquest.api.service;
 
+import com.reliaquest.api.client.AdaptiveRateLimiter;
+import com.reliaquest.api.client.EmployeeJsonReader;
+import com.reliaquest.api.client.EmployeeTransport;
+import com.reliaquest.api.exception.EmployeeNotFoundException;
 import com.reliaquest.api.exception.EmployeeServiceUnavailableException;
 import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeChanges;
+import com.reliaquest.api.model.EmployeePage;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 @Service
 public class EmployeeApiClient {
+
+    // RestTemplate or WebClient, see employee.http.client
+    private final EmployeeTransport transport;
+
+    // concurrent identical GETs share one upstream round trip
+    private final SingleFlight<String, Object> singleFlight;
+
+    // every upstream exchange takes a permit first; shared by all callers
+    private final AdaptiveRateLimiter rateLimiter;
+
+    // slow single-employee and list reads get a second request, see employee.hedge
+    private final UpstreamHedge hedge;
+
+    // last full list per url with its ETag; a 304 hands the same list instance back. Held softly: the snapshot keeps
+    // its own columnar copy, so under memory pressure this one goes and the next request is unconditional
+    private final Map<String, LastList> lastLists = new ConcurrentHashMap<>();
+    private final Counter notModified;
+
+    public EmployeeApiClient(EmployeeTransport transport, AdaptiveRateLimiter rateLimiter, UpstreamHedge hedge, MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.rateLimiter = rateLimiter;
+        this.hedge = hedge;
+        this.singleFlight = new SingleFlight<>("employee.upstream", meterRegistry);
+        this.notModified = Counter.builder("employee.upstream.not.modified").description("Conditional list requests answered 304").register(meterRegistry);
+    }
+
     //circuit breaker implementation when the external service is down or failing issue
-    @CircuitBreaker(name = "employeeServiceCB", fallbackMethod = "employeeApiFallback")
-    public Map<String, Object> callEmployeeApi(String url, String id) {
-        url = (id != null) ? url + "/" + id : url;
-        return new RestTemplate().getForObject(url, Map.class);
+    // Retry wraps the circuit breaker, so every attempt is recorded and the fallback sees the final outcome
+    @Retry(name = "employeeReadRetry", fallbackMethod = "employeeListApiFallback")
+    @CircuitBreaker(name = "employeeServiceCB")
+    @SuppressWarnings("unchecked")
+    public List<Employee> callEmployeeListApi(String url) {
+        return (List<Employee>) singleFlight.execute(url, () -> hedge.execute(() -> limited(() -> conditionalList(url))));
     }
 
-    @CircuitBreaker(name = "employeeServiceCB", fallbackMethod = "employeeApiFallback")
-    public Map<String, Object> callEmployeeCreateApi(String url, Employee employee, String Id) {
-        url = (Id != null) ? url + "/" + Id : url;
-        return new RestTemplate().postForObject(url, employee, Map.class);
+    // streamed straight through to the consumer; each caller gets its own upstream exchange, and no retry since part
+    // of the list may already have been passed on
+    @CircuitBreaker(name = "employeeServiceCB", fallbackMethod = "employeeStreamApiFallback")
+    public long callEmployeeStreamApi(String url, EmployeeJsonReader.EmployeeConsumer consumer) {
+        return limited(() -> transport.stream(url, body -> EmployeeJsonReader.forEachEmployee(body, employee -> {
+            try {
+                consumer.accept(employee);
+            } catch (IOException ex) {
+                // the consumer's side went away (e.g. client disconnect); keep it apart from upstream I/O failures
+                throw new UncheckedIOException(ex);
+            }
+        })));
     }
 
-    public Map<String, Object> employeeApiFallback(String url, String id, Throwable ex) {
-        throw new EmployeeServiceUnavailableException("Employee service is temporarily unavailable: " + ex.getMessage());
+    // empty when upstream's change feed can't bring that version up to date (410), or doesn't exist (404): reload the list
+    @Retry(name = "employeeReadRetry", fallbackMethod = "employeeChangesApiFallback")
+    @CircuitBreaker(name = "employeeServiceCB")
+    public Optional<EmployeeChanges> callEmployeeChangesApi(String url, String since) {
+        String target = UriComponentsBuilder.fromHttpUrl(url + "/changes").queryParam("since", since).encode().toUriString();
+        return Optional.of(limited(() -> transport.get(target, EmployeeJsonReader::readChanges)));
+    }
+
+    /**
+     * The change-feed version of a list returned by {@link #callEmployeeListApi}: the mock server's list ETag doubles
+     * as one. Null if upstream sent no ETag, or the list isn't the last one fetched from that url.
+     */
+    public String changeFeedVersionOf(String url, List<Employee> employees) {
+        LastList last = lastLists.get(url);
+        if (last == null || last.body().get() != employees) {
+            return null;
+        }
+        String etag = last.etag();
+        return etag.length() > 1 && etag.startsWith("\"") && etag.endsWith("\"") ? etag.substring(1, etag.length() - 1) : etag;
+    }
+
+    // one upstream page per call; the cursor is the mock server's, passed through untouched. No thread waits on
+    // upstream with the WebClient transport; retries, the circuit breaker and the fallback apply to the future
+    @Retry(name = "employeeReadRetry", fallbackMethod = "employeePageApiFallback")
+    @CircuitBreaker(name = "employeeServiceCB")
+    public CompletableFuture<EmployeePage> callEmployeePageApi(String url, Integer page, int limit, String cursor) {
+        String target = UriComponentsBuilder.fromHttpUrl(url)
+                .queryParam("limit", limit)
+                .queryParamIfPresent("page", Optional.ofNullable(page))
+                .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                .encode()
+                .toUriString();
+        return singleFlight.executeAsync(target, () -> limitedAsync(() -> transport.getAsync(target, EmployeeJsonReader::readEmployeePage)))
+                .thenApply(EmployeePage.class::cast);
+    }
+
+    @Retry(name = "employeeReadRetry", fallbackMethod = "employeeApiFallback")
+    @CircuitBreaker(name = "employeeServiceCB")
+    public Employee callEmployeeApi(String url, String id) {
+        String target = url + "/" + id;
+        return (Employee) singleFlight.execute(target, () -> hedge.execute(() -> limited(() -> transport.get(target, EmployeeJsonReader::readEmployee))));
+    }
+
+    // writes are not retried: after an I/O failure or 5xx upstream may have applied them, and a 429 only clears after
+    // upstream's quiet period, which the rate limiter waits out
+    @CircuitBreaker(name = "employeeServiceCB", fallbackMethod = "employeeCreateApiFallback")
+    public Employee callEmployeeCreateApi(String url, Employee employee, String Id) {
+        String target = (Id != null) ? url + "/" + Id : url;
+        return limited(() -> transport.post(target, employee, EmployeeJsonReader::readEmployee));
+    }
+
+    // one upstream request per chunk; the mock server reports each entry separately
+    @CircuitBreaker(name = "employeeServiceCB", fallbackMethod = "employeeBulkCreateApiFallback")
+    public List<EmployeeJsonReader.ItemResult<Employee>> callEmployeeBulkCreateApi(String url, List<Employee> employees) {
+        return limited(() -> transport.post(url + "/bulk", employees, EmployeeJsonReader::readCreatedItems));
+    }
+
+    @CircuitBreaker(name = "employeeServiceCB", fallbackMethod = "employeeBulkDeleteApiFallback")
+    public List<EmployeeJsonReader.ItemResult<Boolean>> callEmployeeBulkDeleteApi(String url, List<String> names) {
+        List<Map<String, String>> body = names.stream().map(name -> Map.of("name", name)).toList();
+        return limited(() -> transport.delete(url + "/bulk", body, EmployeeJsonReader::readDeletedItems));
+    }
+
+    // the mock server deletes by name, sent as the request body
+    @CircuitBreaker(name = "employeeServiceCB", fallbackMethod = "employeeDeleteApiFallback")
+    public boolean callEmployeeDeleteApi(String url, String name) {
+        return limited(() -> transport.delete(url, Map.of("name", name), EmployeeJsonReader::readDeleted));
+    }
+
+    public List<Employee> employeeListApiFallback(String url, Throwable ex) {
+        throw unavailable(ex);
+    }
+
+    public long employeeStreamApiFallback(String url, EmployeeJsonReader.EmployeeConsumer consumer, Throwable ex) {
+        if (ex instanceof UncheckedIOException consumerFailure) {
+            throw consumerFailure;
+        }
+        throw unavailable(ex);
     }
-}
 
+    public Optional<EmployeeChanges> employeeChangesApiFallback(String url, String since, Throwable ex) {
+        if (ex instanceof HttpClientErrorException.Gone || ex instanceof HttpClientErrorException.NotFound) {
+            return Optional.empty();
+        }
+        throw unavailable(ex);
+    }
+
+    public CompletableFuture<EmployeePage> employeePageApiFallback(String url, Integer page, int limit, String cursor, Throwable ex) {
+        // a cursor the mock server rejects is the caller's mistake, not an outage
+        if (ex instanceof HttpClientErrorException.BadRequest) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Invalid page request: " + cursor));
+        }
+        return CompletableFuture.failedFuture(unavailable(ex));
+    }
+
+    public Employee employeeApiFallback(String url, String id, Throwable ex) {
+        // upstream answers 404 for unknown ids and 400 for ids that aren't UUIDs
+        if (ex instanceof HttpClientErrorException.NotFound || ex instanceof HttpClientErrorException.BadRequest) {
+            throw new EmployeeNotFoundException(String.format("Employee with ID %s not found.", id));
+        }
+        throw unavailable(ex);
+    }
+
+    public Employee employeeCreateApiFallback(String url, Employee employee, String id, Throwable ex) {
+        throw unavailable(ex);
+    }
+
+    public List<EmployeeJsonReader.ItemResult<Employee>> employeeBulkCreateApiFallback(String url, List<Employee> employees, Throwable ex) {
+        throw unavailable(ex);
+    }
+
+    public List<EmployeeJsonReader.ItemResult<Boolean>> employeeBulkDeleteApiFallback(String url, List<String> names, Throwable ex) {
+        throw unavailable(ex);
+    }
+
+    public boolean employeeDeleteApiFallback(String url, String name, Throwable ex) {
+        throw unavailable(ex);
+    }
+
+    private List<Employee> conditionalList(String url) {
+        LastList previous = lastLists.get(url);
+        List<Employee> previousBody = previous == null ? null : previous.body().get();
+        EmployeeTransport.Conditional<List<Employee>> response = transport.getIfNoneMatch(url, previousBody == null ? null : previous.etag(), EmployeeJsonReader::readEmployeeList);
+        if (response.notModified() && previousBody != null) {
+            notModified.increment();
+            return previousBody;
+        }
+        if (response.etag() != null) {
+            lastLists.put(url, new LastList(response.etag(), new SoftReference<>(response.body())));
+        } else {
+            lastLists.remove(url);
+        }
+        return response.body();
+    }
+
+    // 429s teach the limiter upstream's budget; any other answer means the request counted against it
+    private <T> T limited(Supplier<T> exchange) {
+        rateLimiter.acquire();
+        try {
+            T result = exchange.get();
+            rateLimiter.onAdmitted();
+            return result;
+        } catch (HttpClientErrorException.TooManyRequests ex) {
+            rateLimiter.onThrottled(retryAfter(ex.getResponseHeaders()));
+            throw ex;
+        } catch (HttpClientErrorException ex) {
+            rateLimiter.onAdmitted();
+            throw ex;
+        }
+    }
+
+    // limited() for a future: the permit is taken up front, the outcome is reported when the future completes. Waiting
+    // for a permit still happens on the calling thread, and only while upstream is throttling us
+    private <T> CompletableFuture<T> limitedAsync(Supplier<CompletableFuture<T>> exchange) {
+        rateLimiter.acquire();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        exchange.get().whenComplete((value, ex) -> {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof HttpClientErrorException.TooManyRequests tooManyRequests) {
+                rateLimiter.onThrottled(retryAfter(tooManyRequests.getResponseHeaders()));
+            } else if (cause == null || cause instanceof HttpClientErrorException) {
+                rateLimiter.onAdmitted();
+            }
+            if (cause != null) {
+                result.completeExceptionally(cause);
+            } else {
+                result.complete(value);
+            }
+        });
+        return result;
+    }
+
+    // Retry-After is either delay-seconds or an HTTP date
+    private static Duration retryAfter(HttpHeaders headers) {
+        String value = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException notSeconds) {
+            try {
+                Duration until = Duration.between(Clock.systemUTC().instant(), ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return until.isNegative() ? Duration.ZERO : until;
+            } catch (DateTimeParseException unparseable) {
+                return null;
+            }
+        }
+    }
+
+    private record LastList(String etag, SoftReference<List<Employee>> body) {
+    }
+
+    private static EmployeeServiceUnavailableException unavailable(Throwable ex) {
+        if (ex instanceof EmployeeServiceUnavailableException alreadyUnavailable) {
+            return alreadyUnavailable;
+        }
+        return new EmployeeServiceUnavailableException("Employee service is temporarily unavailable: " + ex.getMessage());
+    }
+}
@@ -1,25 +1,58 @@
 package com.reliaquest.api.service;
 
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.client.EmployeeJsonReader;
+import com.reliaquest.api.index.SalaryAggregates;
+import com.reliaquest.api.model.BulkOutcome;
 import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeBatch;
+import com.reliaquest.api.model.EmployeePage;
+import com.reliaquest.api.model.EmployeeQuery;
+import com.reliaquest.api.model.SalaryStatistics;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface EmployeeService {
 
     List<Employee> getAllEmployees();
 
+    // the list together with its ETag, read from the same snapshot
+    EmployeeSnapshot getEmployeeSnapshot();
+
+    long forEachEmployee(EmployeeJsonReader.EmployeeConsumer consumer);
+
+    // completes once upstream has answered; no thread is held meanwhile with the WebClient transport
+    CompletableFuture<EmployeePage> getEmployeesPage(Integer page, int limit, String cursor);
+
     Employee getEmployeeById(String id);
 
+    EmployeeBatch getEmployeesByIds(List<String> ids);
+
     List<Object> getEmployeesByNameSearch(String name);
 
+    List<Employee> queryEmployees(EmployeeQuery query);
+
 
     Integer getHighestSalaryOfEmployees();
 
     List<String> getTop10HighestEarningEmployeeNames();
 
+    List<Employee> getRankedEmployees(EmployeeQuery.Sort order, int k);
+
+    List<String> getRankedEmployeeNames(EmployeeQuery.Sort order, int k);
+
+    SalaryAggregates getSalaryAggregates();
+
+    SalaryStatistics getSalaryStatistics();
+
 
     Object createEmployee(Employee employeeInput);
 
 
     String deleteEmployeeById(String id);
+
+    List<BulkOutcome> createEmployees(List<Employee> employees);
+
+    List<BulkOutcome> deleteEmployeesByIds(List<String> ids);
 }
@@ -1,41 +1,128 @@
 package com.reliaquest.api.service;
 
+import com.reliaquest.api.cache.EmployeeLookupCache;
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.cache.EmployeeSnapshotCache;
+import com.reliaquest.api.client.EmployeeJsonReader;
 import com.reliaquest.api.exception.EmployeeNotCreatedException;
+import com.reliaquest.api.exception.EmployeeNotDeletedException;
 import com.reliaquest.api.exception.EmployeeNotFoundException;
 import com.reliaquest.api.exception.EmployeeServiceUnavailableException;
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
+import com.reliaquest.api.index.SalaryAggregates;
+import com.reliaquest.api.model.BulkOutcome;
 import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeBatch;
+import com.reliaquest.api.model.EmployeeChanges;
+import com.reliaquest.api.model.EmployeePage;
+import com.reliaquest.api.model.EmployeeQuery;
+import com.reliaquest.api.model.SalaryStatistics;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.Comparator;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+// each endpoint category has its own semaphore bulkhead (resilience4j.bulkhead in application.yml), so a burst of list
+// or export traffic is turned away with a 503 before it can take the request threads single-employee lookups need
 @Service
 @Slf4j
 public class EmployeeserviceImpl implements EmployeeService {
 
     private static final String BASE_URL = "http://localhost:8112/api/v1/employee";
 
-    public static RestTemplate restTemplate;
+    private static final int MAX_PAGE_LIMIT = 1000;
 
-    public EmployeeserviceImpl() {
-        this.restTemplate = new RestTemplate();
-    }
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private static final int MAX_BULK_SIZE = 10_000;
+
+    // entries per upstream bulk request; the chunks themselves go out in parallel on the fan-out's write pool
+    private static final int BULK_CHUNK_SIZE = 100;
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final EmployeeApiClient apiClient;
+
+    private final EmployeeSnapshotCache snapshotCache;
+
+    private final EmployeeLookupCache lookupCache;
+
+    private final UpstreamFanOut fanOut;
+
+    // the full list, plus the mock server's change feed so an expired snapshot only fetches what changed
+    private final EmployeeSnapshotCache.Loader snapshotLoader = new EmployeeSnapshotCache.Loader() {
+        @Override
+        public List<Employee> loadAll() {
+            return fetchAllEmployees();
+        }
+
+        @Override
+        public String versionOf(List<Employee> employees) {
+            return apiClient.changeFeedVersionOf(BASE_URL, employees);
+        }
 
-    @Autowired
-    private EmployeeApiClient apiClient;
+        @Override
+        public Optional<EmployeeChanges> changesSince(String version) {
+            return apiClient.callEmployeeChangesApi(BASE_URL, version);
+        }
+    };
+
+    public EmployeeserviceImpl(EmployeeApiClient apiClient, EmployeeSnapshotCache snapshotCache, EmployeeLookupCache lookupCache, UpstreamFanOut fanOut) {
+        this.apiClient = apiClient;
+        this.snapshotCache = snapshotCache;
+        this.lookupCache = lookupCache;
+        this.fanOut = fanOut;
+    }
 
 
+    @Bulkhead(name = "employeeListBulkhead")
     public List<Employee> getAllEmployees() {
+        return currentSnapshot().getEmployees();
+    }
+
+    @Bulkhead(name = "employeeListBulkhead")
+    public EmployeeSnapshot getEmployeeSnapshot() {
+        return currentSnapshot();
+    }
+
+    // streams from upstream rather than the snapshot, so a bulk export neither loads nor holds the full list
+    @Bulkhead(name = "employeeExportBulkhead")
+    public long forEachEmployee(EmployeeJsonReader.EmployeeConsumer consumer) {
+        return apiClient.callEmployeeStreamApi(BASE_URL, consumer);
+    }
+
+    // pages come straight from upstream, one upstream page per call, without loading the full snapshot
+    @Bulkhead(name = "employeeListBulkhead")
+    public CompletableFuture<EmployeePage> getEmployeesPage(Integer page, int limit, String cursor) {
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_LIMIT + ".");
+        }
+        if (page != null && (page < 0 || cursor != null)) {
+            throw new IllegalArgumentException("page must be non-negative and cannot be combined with cursor.");
+        }
+        return apiClient.callEmployeePageApi(BASE_URL, page, limit, cursor);
+    }
+
+    private EmployeeSnapshot currentSnapshot() {
         try {
 
-            Map<String, Object> response = apiClient.callEmployeeApi(BASE_URL, null);
-            return parseEmployeeList(response);
+            return snapshotCache.get(snapshotLoader);
 
         } catch (EmployeeServiceUnavailableException ex) {
             throw ex;
@@ -44,6 +131,7 @@ public class EmployeeserviceImpl implements EmployeeService {
         }
     }
 
+    @Bulkhead(name = "employeeLookupBulkhead")
     public Employee getEmployeeById(String id) {
         try {
             if (id == null || id.isBlank()) {
@@ -52,15 +140,48 @@ public class EmployeeserviceImpl implements EmployeeService {
 
             log.info("Fetching employee with ID: {}", id);
 
-            Map<String, Object> response = apiClient.callEmployeeApi(BASE_URL, id);
-
-            return parseEmployeee(response);
+            return lookupCache.get(id, this::fetchEmployee);
+        } catch (EmployeeServiceUnavailableException ex) {
+            throw ex;
         } catch (Exception ex) {
             throw new EmployeeNotFoundException(String.format("Employee with ID %s not found.", id));
 
         }
     }
 
+    // ids in a fresh snapshot are answered locally; only the rest go upstream, in parallel
+    @Bulkhead(name = "employeeLookupBulkhead")
+    public EmployeeBatch getEmployeesByIds(List<String> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_BATCH_SIZE + " employee IDs are required.");
+        }
+        if (ids.stream().anyMatch(id -> id == null || id.isBlank())) {
+            throw new IllegalArgumentException("Employee ID cannot be null or empty or malformed.");
+        }
+        Set<String> distinctIds = new LinkedHashSet<>(ids);
+        Optional<EmployeeSnapshot> snapshot = snapshotCache.getIfFresh();
+        Map<String, Employee> found = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String id : distinctIds) {
+            snapshot.flatMap(s -> s.findById(id)).ifPresentOrElse(employee -> found.put(id, employee), () -> misses.add(id));
+        }
+        log.info("Fetching {} employees by ID, {} from upstream", distinctIds.size(), misses.size());
+        found.putAll(fanOut.fetchAll(misses, id -> lookupCache.get(id, this::fetchEmployee)));
+
+        List<Employee> employees = new ArrayList<>(found.size());
+        List<String> notFound = new ArrayList<>();
+        for (String id : distinctIds) {
+            Employee employee = found.get(id);
+            if (employee != null) {
+                employees.add(employee);
+            } else {
+                notFound.add(id);
+            }
+        }
+        return new EmployeeBatch(employees, notFound);
+    }
+
+    @Bulkhead(name = "employeeListBulkhead")
     public List<Object> getEmployeesByNameSearch(String name) {
         try {
             if (name == null || name.isBlank() || name.isEmpty()) {
@@ -68,16 +189,28 @@ public class EmployeeserviceImpl implements EmployeeService {
                 throw new IllegalArgumentException("Employee name cannot be null or empty or malformed.");
             }
             log.info("Searching employees with name containing: {}", name);
-            return getAllEmployees().stream().filter(emp -> emp.getName().toLowerCase().contains(name.toLowerCase())).collect(Collectors.toList());
+            return Collections.unmodifiableList(currentSnapshot().getNameIndex().search(name));
+        } catch (EmployeeServiceUnavailableException ex) {
+            throw ex;
         } catch (Exception ex) {
             throw new EmployeeNotFoundException("Error occurred while searching for employees with name containing: " + name);
         }
     }
 
+    // answered from the snapshot's sorted salary/age and title indexes; a bad query is the caller's mistake (400)
+    @Bulkhead(name = "employeeListBulkhead")
+    public List<Employee> queryEmployees(EmployeeQuery query) {
+        log.info("Querying employees: {}", query);
+        return currentSnapshot().query(query);
+    }
+
 
+    @Bulkhead(name = "employeeListBulkhead")
     public Integer getHighestSalaryOfEmployees() {
         try {
-            return getAllEmployees().stream().map(Employee::getSalary).max(Integer::compareTo).orElse(0);
+            return getSalaryAggregates().getMax();
+        } catch (EmployeeServiceUnavailableException ex) {
+            throw ex;
         } catch (Exception ex) {
             throw new EmployeeNotFoundException("Error occurred while fetching the highest salary.");
         }
@@ -85,23 +218,53 @@ public class EmployeeserviceImpl implements EmployeeService {
     }
 
 
+    @Bulkhead(name = "employeeListBulkhead")
     public List<String> getTop10HighestEarningEmployeeNames() {
-        return getAllEmployees().stream().sorted(Comparator.comparingInt(Employee::getSalary).reversed()).limit(10).map(Employee::getName).toList(); // produces unmodifiable list
+        return getRankedEmployeeNames(EmployeeQuery.Sort.SALARY_DESC, SalaryAggregates.DEFAULT_TOP_K); // precomputed per snapshot, unmodifiable
     }
 
+    // first k in salary or age order, ties in list order; a bounded heap over the snapshot, never a full sort
+    @Bulkhead(name = "employeeListBulkhead")
+    public List<Employee> getRankedEmployees(EmployeeQuery.Sort order, int k) {
+        checkRankSize(k);
+        return currentSnapshot().ranked(order, k);
+    }
 
+    @Bulkhead(name = "employeeListBulkhead")
+    public List<String> getRankedEmployeeNames(EmployeeQuery.Sort order, int k) {
+        checkRankSize(k);
+        return currentSnapshot().rankedNames(order, k);
+    }
+
+    @Bulkhead(name = "employeeListBulkhead")
+    public SalaryAggregates getSalaryAggregates() {
+        return currentSnapshot().getSalaryAggregates();
+    }
+
+    // sketches built on first use per snapshot and updated by local writes, so repeated calls don't scan the list
+    @Bulkhead(name = "employeeListBulkhead")
+    public SalaryStatistics getSalaryStatistics() {
+        return currentSnapshot().getSalaryStatistics();
+    }
+
+
+    @Bulkhead(name = "employeeWriteBulkhead")
     public Employee createEmployee(Employee employee) {
         try {
             log.info("Creating new employee with name: {}", employee.getName());
-            Map<String, Object> response = apiClient.callEmployeeCreateApi(BASE_URL, employee, null);
-
-            return parseEmployeee(response);
+            Employee created = apiClient.callEmployeeCreateApi(BASE_URL, employee, null);
+            snapshotCache.update(snapshot -> snapshot.withAdded(created));
+            lookupCache.put(created);
+            return created;
+        } catch (EmployeeServiceUnavailableException ex) {
+            throw ex;
         } catch (Exception ex) {
             throw new EmployeeNotCreatedException("Error occurred while creating the employee: " + ex.getMessage());
         }
     }
 
 
+    @Bulkhead(name = "employeeWriteBulkhead")
     public String deleteEmployeeById(String id) {
         try {
             if (id == null || id.isBlank()) {
@@ -109,27 +272,224 @@ public class EmployeeserviceImpl implements EmployeeService {
             }
 
             log.info("Deleting employee with ID: {}", id);
-            restTemplate.delete(BASE_URL + "/" + id);
+            // the snapshot normally knows the employee already; only an id it lacks costs an upstream lookup
+            EmployeeSnapshot snapshot = currentSnapshot();
+            Employee employee = snapshot.findById(id).orElseGet(() -> getEmployeeById(id));
+            if (sharesName(snapshot, id, employee.getName())) {
+                throw new EmployeeNotDeletedException(String.format("Employee with ID %s shares its name with another employee and cannot be deleted by name.", id));
+            }
+            boolean deleted = apiClient.callEmployeeDeleteApi(BASE_URL, employee.getName());
+            // either way the cached entry is no longer right
+            lookupCache.invalidate(id);
+            if (!deleted) {
+                throw new EmployeeNotFoundException("Employee with ID " + id + " not found To delete");
+            }
+            if (!stillPresent(Set.of(id)).isEmpty()) {
+                throw new EmployeeNotDeletedException(String.format("Employee service deleted another employee named %s; employee with ID %s was not deleted.", employee.getName(), id));
+            }
             return "Employee with ID " + id + " deleted successfully.";
+        } catch (EmployeeServiceUnavailableException | EmployeeNotDeletedException ex) {
+            throw ex;
         } catch (Exception ex) {
             throw new EmployeeNotFoundException("Employee with ID " + id + " not found To delete");
         }
 
     }
 
-    private List<Employee> parseEmployeeList(Map<String, Object> response) {
-        List<Map<String, Object>> data = (List<Map<String, Object>>) response.get("data");
-        return data.stream().map(this::parseEmployee).toList();
+    @Bulkhead(name = "employeeWriteBulkhead")
+    public List<BulkOutcome> createEmployees(List<Employee> employees) {
+        checkBulkSize(employees);
+        BulkOutcome[] outcomes = new BulkOutcome[employees.size()];
+        List<Integer> valid = new ArrayList<>(employees.size());
+        for (int i = 0; i < employees.size(); i++) {
+            String violation = firstViolation(employees.get(i));
+            if (violation == null) {
+                valid.add(i);
+            } else {
+                outcomes[i] = BulkOutcome.invalid(null, violation);
+            }
+        }
+        log.info("Creating {} employees in bulk, {} invalid", employees.size(), employees.size() - valid.size());
+
+        List<List<Integer>> chunks = partition(valid);
+        fanOut.writeAll(chunkNumbers(chunks), chunkNumber -> {
+            List<Integer> chunk = chunks.get(chunkNumber);
+            try {
+                List<EmployeeJsonReader.ItemResult<Employee>> results = apiClient.callEmployeeBulkCreateApi(BASE_URL, chunk.stream().map(employees::get).toList());
+                List<Employee> created = new ArrayList<>(chunk.size());
+                for (int j = 0; j < chunk.size(); j++) {
+                    EmployeeJsonReader.ItemResult<Employee> result = j < results.size() ? results.get(j) : null;
+                    if (result != null && result.data() != null) {
+                        outcomes[chunk.get(j)] = BulkOutcome.created(result.data());
+                        created.add(result.data());
+                    } else {
+                        outcomes[chunk.get(j)] = BulkOutcome.failed(null, result == null ? "No result from employee service" : result.error());
+                    }
+                }
+                snapshotCache.update(snapshot -> snapshot.withAddedAll(created));
+                created.forEach(lookupCache::put);
+            } catch (RuntimeException ex) {
+                chunk.forEach(i -> outcomes[i] = BulkOutcome.failed(null, ex.getMessage()));
+            }
+            return chunkNumber;
+        });
+        return List.of(outcomes);
+    }
+
+    @Bulkhead(name = "employeeWriteBulkhead")
+    public List<BulkOutcome> deleteEmployeesByIds(List<String> ids) {
+        checkBulkSize(ids);
+        BulkOutcome[] outcomes = new BulkOutcome[ids.size()];
+        Set<String> seen = new HashSet<>();
+        List<Integer> pending = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            String id = ids.get(i);
+            if (id == null || id.isBlank()) {
+                outcomes[i] = BulkOutcome.invalid(id, "Employee ID cannot be null or empty or malformed.");
+            } else if (!seen.add(id)) {
+                outcomes[i] = BulkOutcome.invalid(id, "Duplicate employee ID.");
+            } else {
+                pending.add(i);
+            }
+        }
+        log.info("Deleting {} employees in bulk", pending.size());
+
+        // the mock server deletes by name: resolve names first, before any delete chunk is submitted;
+        // loading the snapshot first lets ids it knows resolve without an upstream lookup
+        EmployeeSnapshot snapshot = currentSnapshot();
+        Map<String, Employee> resolved = new HashMap<>();
+        for (List<Integer> chunk : partition(pending)) {
+            try {
+                getEmployeesByIds(chunk.stream().map(ids::get).toList()).employees().forEach(employee -> resolved.put(employee.getId(), employee));
+            } catch (RuntimeException ex) {
+                chunk.forEach(i -> outcomes[i] = BulkOutcome.failed(ids.get(i), ex.getMessage()));
+            }
+        }
+        List<Integer> deletable = new ArrayList<>(pending.size());
+        for (int i : pending) {
+            Employee employee = resolved.get(ids.get(i));
+            if (outcomes[i] == null && employee == null) {
+                outcomes[i] = BulkOutcome.notFound(ids.get(i));
+            } else if (outcomes[i] == null && sharesName(snapshot, employee.getId(), employee.getName())) {
+                outcomes[i] = BulkOutcome.failed(ids.get(i), "Employee shares its name with another employee and cannot be deleted by name.");
+            } else if (outcomes[i] == null) {
+                deletable.add(i);
+            }
+        }
+
+        Set<String> deleted = ConcurrentHashMap.newKeySet();
+        List<List<Integer>> chunks = partition(deletable);
+        fanOut.writeAll(chunkNumbers(chunks), chunkNumber -> {
+            List<Integer> chunk = chunks.get(chunkNumber);
+            try {
+                List<EmployeeJsonReader.ItemResult<Boolean>> results = apiClient.callEmployeeBulkDeleteApi(BASE_URL, chunk.stream().map(i -> resolved.get(ids.get(i)).getName()).toList());
+                for (int j = 0; j < chunk.size(); j++) {
+                    String id = ids.get(chunk.get(j));
+                    EmployeeJsonReader.ItemResult<Boolean> result = j < results.size() ? results.get(j) : null;
+                    if (result == null || result.error() != null) {
+                        outcomes[chunk.get(j)] = BulkOutcome.failed(id, result == null ? "No result from employee service" : result.error());
+                    } else if (Boolean.TRUE.equals(result.data())) {
+                        outcomes[chunk.get(j)] = BulkOutcome.deleted(id);
+                        deleted.add(id);
+                        lookupCache.invalidate(id);
+                    } else {
+                        outcomes[chunk.get(j)] = BulkOutcome.notFound(id);
+                        lookupCache.invalidate(id);
+                    }
+                }
+            } catch (RuntimeException ex) {
+                chunk.forEach(i -> outcomes[i] = BulkOutcome.failed(ids.get(i), ex.getMessage()));
+            }
+            return chunkNumber;
+        });
+
+        if (!deleted.isEmpty()) {
+            Set<String> notDeleted;
+            String unverified = null;
+            try {
+                notDeleted = stillPresent(deleted);
+            } catch (EmployeeServiceUnavailableException ex) {
+                notDeleted = deleted;
+                unverified = ex.getMessage();
+            }
+            for (int i : deletable) {
+                if (notDeleted.contains(ids.get(i))) {
+                    outcomes[i] = BulkOutcome.failed(ids.get(i), unverified != null ? unverified : "Employee service deleted another employee with the same name.");
+                }
+            }
+        }
+        return List.of(outcomes);
+    }
+
+    // upstream deletes the earliest employee with a name, whichever id we meant
+    private static boolean sharesName(EmployeeSnapshot snapshot, String id, String name) {
+        return name != null && snapshot.idsNamed(name).stream().anyMatch(other -> !other.equals(id));
+    }
+
+    /**
+     * Which of the ids upstream just reported deleted (by name) it still has. Upstream only says whether it deleted
+     * someone with the name, so the snapshot is caught up from the change feed, which names the employees actually
+     * deleted; a snapshot that only missed another employee of the same name ends up right either way. If that read
+     * fails nothing is known about which employees went, which is reported as unavailable rather than as deleted.
+     */
+    private Set<String> stillPresent(Set<String> deletedIds) {
+        EmployeeSnapshot snapshot;
+        try {
+            snapshot = snapshotCache.refresh(snapshotLoader);
+        } catch (RuntimeException ex) {
+            log.warn("Could not read deletes of {} back from the employee service: {}", deletedIds, ex.getMessage());
+            lookupCache.invalidateAll();
+            String message = "Employee service deleted by name but could not confirm which employee it deleted: " + ex.getMessage();
+            throw ex instanceof UpstreamRateLimitedException limited
+                    ? new UpstreamRateLimitedException(message, limited.getRetryAfter())
+                    : new EmployeeServiceUnavailableException(message);
+        }
+        Set<String> present = deletedIds.stream().filter(id -> snapshot.findById(id).isPresent()).collect(Collectors.toSet());
+        if (!present.isEmpty()) {
+            log.warn("Employee service deleted other employees than {} of the same names", present);
+            // we don't know which ids went instead
+            lookupCache.invalidateAll();
+        }
+        return present;
     }
 
+    private static void checkRankSize(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1.");
+        }
+    }
+
+    private static void checkBulkSize(List<?> entries) {
+        if (entries == null || entries.isEmpty() || entries.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_BULK_SIZE + " entries are required.");
+        }
+    }
+
+    private static String firstViolation(Employee employee) {
+        if (employee == null) {
+            return "Employee cannot be null.";
+        }
+        return VALIDATOR.validate(employee).stream().map(ConstraintViolation::getMessage).sorted().findFirst().orElse(null);
+    }
+
+    private static List<List<Integer>> partition(List<Integer> indexes) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < indexes.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(indexes.subList(from, Math.min(from + BULK_CHUNK_SIZE, indexes.size())));
+        }
+        return chunks;
+    }
+
+    private static List<Integer> chunkNumbers(List<List<Integer>> chunks) {
+        return IntStream.range(0, chunks.size()).boxed().toList();
+    }
 
-    private Employee parseEmployee(Map<String, Object> data) {
-        return new Employee((String) data.get("id"), (String) data.get("employee_name"), (Integer) data.get("employee_salary"), (Integer) data.get("employee_age"), (String) data.get("employee_title"), (String) data.get("employee_email"));
+    private Employee fetchEmployee(String id) {
+        return apiClient.callEmployeeApi(BASE_URL, id);
     }
 
-    private Employee parseEmployeee(Map<String, Object> data) {
-        LinkedHashMap<String, Object> castData = (LinkedHashMap<String, Object>) data.get("data");
-        return new Employee((String) castData.get("id"), (String) castData.get("employee_name"), (Integer) castData.get("employee_salary"), (Integer) castData.get("employee_age"), (String) castData.get("employee_title"), (String) castData.get("employee_email"));
+    private List<Employee> fetchAllEmployees() {
+        return apiClient.callEmployeeListApi(BASE_URL);
     }
 
 
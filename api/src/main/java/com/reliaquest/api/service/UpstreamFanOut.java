@@ -0,0 +1,108 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.client.AdaptiveRateLimiter;
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.exception.EmployeeServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Runs independent upstream calls in parallel on fixed pools shared by all requests: {@link #fetchAll} lookups on one
+ * of {@code employee.batch.parallelism} threads, {@link #writeAll} bulk write chunks on one of
+ * {@code employee.bulk.parallelism}, so a large bulk write can't starve {@code /batch} lookups and vice versa. Tasks run
+ * at the submitting thread's {@link AdaptiveRateLimiter.Priority}. Once upstream pushes back (rate limit, open circuit)
+ * calls that haven't started yet are skipped and the failure is rethrown.
+ */
+@Component
+public class UpstreamFanOut {
+
+    private final ExecutorService lookups;
+    private final ExecutorService writes;
+
+    public UpstreamFanOut(@Value("${employee.batch.parallelism:4}") int parallelism,
+                          @Value("${employee.bulk.parallelism:2}") int writeParallelism) {
+        this.lookups = pool("employee-fan-out-", parallelism);
+        this.writes = pool("employee-bulk-write-", writeParallelism);
+    }
+
+    private static ExecutorService pool(String prefix, int size) {
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, prefix + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Values for the keys the lookup found; a lookup throwing {@link EmployeeNotFoundException} or returning null
+     * leaves its key out.
+     */
+    public <K, V> Map<K, V> fetchAll(Collection<K> keys, Function<K, V> lookup) {
+        return runAll(lookups, keys, lookup);
+    }
+
+    // fetchAll for upstream writes, on their own pool
+    public <K, V> Map<K, V> writeAll(Collection<K> keys, Function<K, V> write) {
+        return runAll(writes, keys, write);
+    }
+
+    private static <K, V> Map<K, V> runAll(ExecutorService executor, Collection<K> keys, Function<K, V> call) {
+        AdaptiveRateLimiter.Priority priority = AdaptiveRateLimiter.currentPriority();
+        Map<K, V> results = new ConcurrentHashMap<>();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        List<Future<?>> pending = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            pending.add(executor.submit(() -> {
+                if (failure.get() != null) {
+                    return;
+                }
+                try {
+                    V value = AdaptiveRateLimiter.withPriority(priority, () -> call.apply(key));
+                    if (value != null) {
+                        results.put(key, value);
+                    }
+                } catch (EmployeeNotFoundException ex) {
+                    // absent upstream
+                } catch (RuntimeException ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            }));
+        }
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                pending.forEach(remaining -> remaining.cancel(false));
+                throw new EmployeeServiceUnavailableException("Interrupted while waiting for the employee service");
+            } catch (ExecutionException ex) {
+                failure.compareAndSet(null, new IllegalStateException(ex.getCause()));
+            }
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lookups.shutdownNow();
+        writes.shutdownNow();
+    }
+}
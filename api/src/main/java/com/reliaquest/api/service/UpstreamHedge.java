@@ -0,0 +1,143 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.client.AdaptiveRateLimiter;
+import com.reliaquest.api.exception.EmployeeServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hedged execution of idempotent upstream reads. The call is started on a pool thread; if it hasn't answered after
+ * the recent {@code employee.hedge.percentile} latency (never less than {@code min-delay}), a second identical call is
+ * started and whichever succeeds first wins. Both failing rethrows the first call's failure.
+ * <p>
+ * The hedge runs at background priority with the rate limiter, so it is the first thing dropped when upstream's budget
+ * is tight. The losing call isn't interrupted, it just finishes in the background. Disabled by default, in which case
+ * calls run on the caller's thread.
+ */
+@Component
+public class UpstreamHedge {
+
+    private final boolean enabled;
+    private final Duration minDelay;
+    private final Timer latency;
+    private final Counter hedged;
+    private final Counter hedgeWon;
+    private final ExecutorService executor;
+
+    public UpstreamHedge(@Value("${employee.hedge.enabled:false}") boolean enabled,
+                         @Value("${employee.hedge.percentile:0.95}") double percentile,
+                         @Value("${employee.hedge.min-delay:50ms}") Duration minDelay,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.minDelay = minDelay;
+        this.latency = Timer.builder("employee.upstream.hedge.latency")
+                .description("Latency of successful hedgeable upstream reads; drives the hedge delay")
+                .publishPercentiles(percentile)
+                .distributionStatisticExpiry(Duration.ofMinutes(1))
+                .register(meterRegistry);
+        this.hedged = Counter.builder("employee.upstream.hedge.requests").tag("outcome", "sent").register(meterRegistry);
+        this.hedgeWon = Counter.builder("employee.upstream.hedge.requests").tag("outcome", "won").register(meterRegistry);
+        // callers block on their own read, so in-flight work is already bounded by the request threads
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "employee-hedge-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public <T> T execute(Supplier<T> read) {
+        if (!enabled) {
+            return read.get();
+        }
+        AdaptiveRateLimiter.Priority priority = AdaptiveRateLimiter.currentPriority();
+        CompletableFuture<T> primary = CompletableFuture.supplyAsync(() -> AdaptiveRateLimiter.withPriority(priority, () -> timed(read)), executor);
+        try {
+            return primary.get(delay().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException slow) {
+            hedged.increment();
+            CompletableFuture<T> hedge = CompletableFuture.supplyAsync(() -> AdaptiveRateLimiter.inBackground(() -> timed(read)), executor);
+            return firstSuccessful(primary, hedge);
+        } catch (ExecutionException ex) {
+            throw unwrap(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new EmployeeServiceUnavailableException("Interrupted while waiting for the employee service");
+        }
+    }
+
+    private Duration delay() {
+        for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+            Duration observed = Duration.ofNanos((long) value.value(TimeUnit.NANOSECONDS));
+            return observed.compareTo(minDelay) > 0 ? observed : minDelay;
+        }
+        return minDelay;
+    }
+
+    private <T> T timed(Supplier<T> read) {
+        long start = System.nanoTime();
+        T result = read.get();
+        latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private <T> T firstSuccessful(CompletableFuture<T> primary, CompletableFuture<T> hedge) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicBoolean settled = new AtomicBoolean();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((value, error) -> {
+            if (error == null) {
+                if (settled.compareAndSet(false, true)) {
+                    winner.complete(value);
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                winner.completeExceptionally(error);
+            }
+        });
+        hedge.whenComplete((value, error) -> {
+            if (error == null) {
+                if (settled.compareAndSet(false, true)) {
+                    hedgeWon.increment();
+                    winner.complete(value);
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                // report the primary's failure; the hedge may only have been shed by the rate limiter
+                primary.whenComplete((ignored, primaryError) -> winner.completeExceptionally(primaryError));
+            }
+        });
+        try {
+            return winner.join();
+        } catch (CompletionException ex) {
+            throw unwrap(ex.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
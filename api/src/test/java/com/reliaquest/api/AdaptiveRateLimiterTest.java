@@ -0,0 +1,234 @@
+package com.reliaquest.api;
+
+import com.reliaquest.api.client.AdaptiveRateLimiter;
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveRateLimiterTest {
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveRateLimiter(true, Duration.ofSeconds(30), Duration.ofMinutes(2), Duration.ZERO, meterRegistry, clock);
+    }
+
+    // admits `count` calls, then has upstream answer the next one with 429
+    private void exhaust(int count, Duration retryAfter) {
+        for (int i = 0; i < count; i++) {
+            limiter.acquire();
+            limiter.onAdmitted();
+        }
+        limiter.acquire();
+        limiter.onThrottled(retryAfter);
+    }
+
+    @Test
+    @DisplayName("Everything is let through until upstream first answers 429")
+    void testUnlimitedUntilThrottled() {
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire();
+            limiter.onAdmitted();
+        }
+        assertEquals(-1, meterRegistry.get("employee.upstream.rate.limit.budget").gauge().value());
+    }
+
+    @Test
+    @DisplayName("The budget is learned from the calls admitted before the 429 and refilled after the window")
+    void testLearnsBudgetAndRefills() {
+        exhaust(12, null);
+
+        UpstreamRateLimitedException shed = assertThrows(UpstreamRateLimitedException.class, limiter::acquire);
+        assertEquals(Duration.ofSeconds(30), shed.getRetryAfter());
+        assertEquals(12, meterRegistry.get("employee.upstream.rate.limit.budget").gauge().value());
+
+        clock.advance(Duration.ofSeconds(30));
+        for (int i = 0; i < 12; i++) {
+            limiter.acquire();
+            limiter.onAdmitted();
+        }
+        assertThrows(UpstreamRateLimitedException.class, limiter::acquire);
+        assertEquals(1, meterRegistry.get("employee.upstream.rate.limit.throttled").counter().count());
+    }
+
+    @Test
+    @DisplayName("Retry-After from upstream decides when the bucket refills")
+    void testHonoursRetryAfter() {
+        exhaust(10, Duration.ofSeconds(45));
+
+        clock.advance(Duration.ofSeconds(44));
+        assertThrows(UpstreamRateLimitedException.class, limiter::acquire);
+        clock.advance(Duration.ofSeconds(1));
+        assertDoesNotThrow(limiter::acquire);
+        assertEquals(45, meterRegistry.get("employee.upstream.rate.limit.window").gauge().value());
+    }
+
+    @Test
+    @DisplayName("A refill that is met by another 429 doubles the window")
+    void testWindowBacksOff() {
+        exhaust(10, null);
+        clock.advance(Duration.ofSeconds(30));
+
+        limiter.acquire();
+        limiter.onThrottled(null);
+
+        assertEquals(60, meterRegistry.get("employee.upstream.rate.limit.window").gauge().value());
+        clock.advance(Duration.ofSeconds(59));
+        assertThrows(UpstreamRateLimitedException.class, limiter::acquire);
+        clock.advance(Duration.ofSeconds(1));
+        assertDoesNotThrow(limiter::acquire);
+    }
+
+    @Test
+    @DisplayName("Background calls are shed first and leave a reserve for interactive ones")
+    void testBackgroundReserve() {
+        exhaust(10, null);
+        clock.advance(Duration.ofSeconds(30));
+
+        for (int i = 0; i < 8; i++) {
+            AdaptiveRateLimiter.inBackground(() -> {
+                limiter.acquire();
+                return null;
+            });
+        }
+        UpstreamRateLimitedException reserved = assertThrows(UpstreamRateLimitedException.class, () -> AdaptiveRateLimiter.inBackground(() -> {
+            limiter.acquire();
+            return null;
+        }));
+        assertEquals(Duration.ofSeconds(30), reserved.getRetryAfter());
+        limiter.acquire();
+        limiter.acquire();
+        assertThrows(UpstreamRateLimitedException.class, limiter::acquire);
+
+        assertEquals(1, meterRegistry.get("employee.upstream.rate.limit.decisions").tag("outcome", "shed").tag("priority", "background").counter().count());
+        assertEquals(1, meterRegistry.get("employee.upstream.rate.limit.decisions").tag("outcome", "shed").tag("priority", "interactive").counter().count());
+    }
+
+    @Test
+    @DisplayName("Interactive calls wait for a refill that is due within max-wait")
+    void testInteractiveQueues() {
+        limiter = new AdaptiveRateLimiter(true, Duration.ofSeconds(30), Duration.ofMinutes(2), Duration.ofSeconds(2), meterRegistry, Clock.systemUTC());
+        exhaust(5, Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        limiter.acquire();
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 150);
+        assertEquals(1, meterRegistry.get("employee.upstream.rate.limit.decisions").tag("outcome", "queued").tag("priority", "interactive").counter().count());
+    }
+
+    @Test
+    @DisplayName("A disabled limiter never sheds")
+    void testDisabled() {
+        limiter = new AdaptiveRateLimiter(false, Duration.ofSeconds(30), Duration.ofMinutes(2), Duration.ZERO, new SimpleMeterRegistry(), clock);
+        exhaust(3, null);
+
+        assertDoesNotThrow(limiter::acquire);
+    }
+
+    @Test
+    @DisplayName("Against the mock server, which sends no Retry-After, 429s die out and throughput settles near its limit")
+    void testConvergesWithoutRetryAfter() {
+        // the mock server draws its limit from [10, 15) and its quiet period from [30, 90) seconds
+        for (int requestLimit : new int[] {10, 14}) {
+            for (int backoffSeconds : new int[] {30, 59, 89}) {
+                limiter = new AdaptiveRateLimiter(true, Duration.ofSeconds(30), Duration.ofMinutes(2), Duration.ZERO, new SimpleMeterRegistry(), clock);
+                FixedWindowUpstream upstream = new FixedWindowUpstream(requestLimit, Duration.ofSeconds(backoffSeconds));
+                int throttledLate = 0;
+                int admittedLate = 0;
+                // one interactive call a second for half an hour; the first ten minutes are for learning
+                for (int second = 0; second < 30 * 60; second++, clock.advance(Duration.ofSeconds(1))) {
+                    try {
+                        limiter.acquire();
+                    } catch (UpstreamRateLimitedException shed) {
+                        continue;
+                    }
+                    boolean admitted = upstream.admit(clock.instant());
+                    if (admitted) {
+                        limiter.onAdmitted();
+                    } else {
+                        limiter.onThrottled(null);
+                    }
+                    if (second >= 10 * 60) {
+                        throttledLate += admitted ? 0 : 1;
+                        admittedLate += admitted ? 1 : 0;
+                    }
+                }
+                String scenario = requestLimit + " requests per " + backoffSeconds + "s";
+                assertEquals(0, throttledLate, scenario);
+                // upstream allows about requestLimit per quiet period; the learned window overshoots by under 2x
+                assertTrue(admittedLate >= requestLimit * 20 * 60 / (2 * backoffSeconds), scenario + ": " + admittedLate);
+            }
+        }
+    }
+
+    /**
+     * The mock server's RandomRequestLimitInterceptor: {@code limit} requests, then 429 without Retry-After until
+     * {@code backoff} after the last request it counted; the first request after that resets the count uncounted.
+     */
+    private static class FixedWindowUpstream {
+
+        private final int limit;
+        private final Duration backoff;
+        private int count;
+        private Instant lastRequested = Instant.MIN;
+
+        FixedWindowUpstream(int limit, Duration backoff) {
+            this.limit = limit;
+            this.backoff = backoff;
+        }
+
+        boolean admit(Instant now) {
+            if (count >= limit) {
+                if (now.minus(backoff).isBefore(lastRequested)) {
+                    return false;
+                }
+                count = 0;
+                lastRequested = now;
+                return true;
+            }
+            count++;
+            lastRequested = now;
+            return true;
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
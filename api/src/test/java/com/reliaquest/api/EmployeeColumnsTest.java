@@ -0,0 +1,132 @@
+package com.reliaquest.api;
+
+import com.reliaquest.api.index.EmployeeColumns;
+import com.reliaquest.api.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeColumnsTest {
+
+    private static List<Employee> employees(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Employee("id-" + i, "Émile Näme " + i, 30000 + i, 20 + i % 40, i % 3 == 0 ? null : "Title " + i % 5, i + "@example.com"))
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Rows read back equal to the employees they were built from, null fields included")
+    void testRoundTrip() {
+        List<Employee> employees = new ArrayList<>(employees(50));
+        employees.add(new Employee(null, null, 0, 0, null, null));
+
+        EmployeeColumns columns = EmployeeColumns.of(employees);
+
+        assertEquals(employees, columns.asList());
+        assertEquals(employees.size(), columns.size());
+        assertEquals(7, columns.ordinalOf("id-7"));
+        assertEquals(-1, columns.ordinalOf("missing"));
+        assertNull(columns.title(0));
+        assertEquals("Title 1", columns.title(1));
+    }
+
+    @Test
+    @DisplayName("Removals leave holes with stable ordinals until holes outnumber live rows, then compact")
+    void testRemovalsAndCompaction() {
+        List<Employee> expected = new ArrayList<>(employees(10));
+        EmployeeColumns columns = EmployeeColumns.of(expected);
+
+        for (int i = 0; i < 5; i++) {
+            columns = columns.withRemoved(columns.ordinalOf("id-" + i));
+            expected.remove(0);
+            assertEquals(10, columns.slots());
+            assertEquals(expected, columns.asList());
+            assertEquals(9, columns.ordinalOf("id-9"));
+        }
+
+        columns = columns.withRemoved(columns.ordinalOf("id-5"));
+        expected.remove(0);
+
+        assertEquals(4, columns.slots());
+        assertEquals(expected, columns.asList());
+        assertEquals(3, columns.ordinalOf("id-9"));
+        assertEquals(-1, columns.ordinalOf("id-5"));
+    }
+
+    @Test
+    @DisplayName("Appends get the next ordinal and new titles; earlier columns are left untouched")
+    void testAppend() {
+        EmployeeColumns original = EmployeeColumns.of(employees(3));
+        Employee added = new Employee("new", "New Hire", 99000, 25, "Brand New Title", "new@example.com");
+
+        EmployeeColumns appended = original.withAdded(added).withRemovedAll(Set.of("id-1"));
+
+        assertEquals(List.of(employees(3).get(0), employees(3).get(2), added), appended.asList());
+        assertEquals("Brand New Title", appended.title(appended.ordinalOf("new")));
+        assertEquals(employees(3), original.asList());
+    }
+
+    @Test
+    @DisplayName("A run of appends reads back like columns built from the whole list")
+    void testAppendRun() {
+        List<Employee> expected = new ArrayList<>(employees(20));
+        EmployeeColumns columns = EmployeeColumns.of(expected);
+
+        for (Employee employee : employees(200).subList(20, 200)) {
+            columns = columns.withAdded(employee);
+            expected.add(employee);
+        }
+        Employee nameless = new Employee("nameless", null, 1, 30, "Another New Title", "nameless@example.com");
+        columns = columns.withAdded(nameless);
+        expected.add(nameless);
+
+        assertEquals(expected, columns.asList());
+        assertEquals(200, columns.ordinalOf("nameless"));
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, columns.ordinalOf("id-" + i));
+        }
+        assertTrue(columns.nameContains(199, EmployeeColumns.fold("näme 199")));
+        assertNull(columns.name(200));
+        assertEquals("Another New Title", columns.title(200));
+    }
+
+    @Test
+    @DisplayName("Columns appended to from the same parent don't see each other's rows")
+    void testSiblingAppends() {
+        EmployeeColumns parent = EmployeeColumns.of(employees(3)).withAdded(employees(4).get(3));
+        Employee left = new Employee("left", "Left Hire", 1, 30, "Left Title", "left@example.com");
+        Employee right = new Employee("right", "Right Hire", 2, 40, null, "right@example.com");
+
+        EmployeeColumns first = parent.withAdded(left);
+        EmployeeColumns second = parent.withAdded(right);
+        EmployeeColumns afterHole = parent.withRemoved(0).withAdded(right);
+
+        assertEquals(employees(4), parent.asList());
+        assertEquals(-1, parent.ordinalOf("left"));
+        assertEquals(4, first.ordinalOf("left"));
+        assertEquals(-1, first.ordinalOf("right"));
+        assertEquals(4, second.ordinalOf("right"));
+        assertEquals(-1, second.ordinalOf("left"));
+        assertEquals("Left Title", first.title(4));
+        assertNull(second.title(4));
+        assertEquals(List.of(employees(4).get(1), employees(4).get(2), employees(4).get(3), right), afterHole.asList());
+        assertEquals(left, first.employee(4));
+        assertEquals(right, second.employee(4));
+    }
+
+    @Test
+    @DisplayName("Name matching is case-insensitive against the shared name buffer")
+    void testNameContains() {
+        EmployeeColumns columns = EmployeeColumns.of(employees(12));
+
+        assertTrue(columns.nameContains(11, EmployeeColumns.fold("ÉMILE NÄME 11")));
+        assertTrue(columns.nameContains(1, EmployeeColumns.fold("")));
+        assertFalse(columns.nameContains(1, EmployeeColumns.fold("näme 11")));
+    }
+}
@@ -1,7 +1,12 @@
 
 package com.reliaquest.api;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.client.EmployeeJsonReader;
 import com.reliaquest.api.controller.EmployeeController;
 import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeePage;
+import com.reliaquest.api.model.EmployeeQuery;
 import com.reliaquest.api.service.EmployeeService;
 import com.reliaquest.api.service.EmployeeserviceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,19 +15,43 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 class EmployeeControllerTest {
 
     @Mock
     private EmployeeserviceImpl employeeService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private EmployeeController employeeController;
 
@@ -39,7 +68,8 @@ class EmployeeControllerTest {
             new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com"),
             new Employee("2", "Jane Smith", 60000, 28, "Manager", "jane.smith@example.com")
         );
-        when(employeeService.getAllEmployees()).thenReturn(mockEmployees);
+        EmployeeSnapshot snapshot = new EmployeeSnapshot(mockEmployees, Instant.now());
+        when(employeeService.getEmployeeSnapshot()).thenReturn(snapshot);
 
         // Act
         ResponseEntity<List<Object>> response = employeeController.getAllEmployees();
@@ -47,7 +77,95 @@ class EmployeeControllerTest {
         // Assert
         assertNotNull(response);
         assertEquals(2, response.getBody().size());
-        verify(employeeService, times(1)).getAllEmployees();
+        assertEquals(snapshot.getETag(), response.getHeaders().getETag());
+        verify(employeeService, times(1)).getEmployeeSnapshot();
+    }
+
+    @Test
+    @DisplayName("Test getAllEmployees - 304 without a body when If-None-Match matches")
+    void testGetAllEmployeesNotModified() {
+        // Arrange
+        EmployeeSnapshot snapshot = spy(new EmployeeSnapshot(List.of(new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com")), Instant.now()));
+        when(employeeService.getEmployeeSnapshot()).thenReturn(snapshot);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/employee");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, snapshot.getETag());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, new MockHttpServletResponse()));
+
+        // Act
+        ResponseEntity<List<Object>> response;
+        try {
+            response = employeeController.getAllEmployees();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        verify(snapshot, never()).getEmployees();
+    }
+
+    @Test
+    @DisplayName("Test getEmployeesPage - Next cursor in header")
+    void testGetEmployeesPage() {
+        // Arrange
+        EmployeePage page = new EmployeePage(List.of(new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com")), "MQ");
+        when(employeeService.getEmployeesPage(null, 1, null)).thenReturn(CompletableFuture.completedFuture(page));
+        when(employeeService.getEmployeesPage(null, 1, "MQ")).thenReturn(CompletableFuture.completedFuture(new EmployeePage(List.of(), null)));
+
+        // Act
+        ResponseEntity<List<Object>> response = employeeController.getEmployeesPage(null, 1, null).join();
+        ResponseEntity<List<Object>> lastResponse = employeeController.getEmployeesPage(null, 1, "MQ").join();
+
+        // Assert
+        assertEquals(1, response.getBody().size());
+        assertEquals("MQ", response.getHeaders().getFirst(EmployeeController.NEXT_CURSOR_HEADER));
+        assertFalse(lastResponse.getHeaders().containsKey(EmployeeController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    @DisplayName("Test getEmployeesPage - Request thread is released while upstream answers")
+    void testGetEmployeesPageAsync() throws Exception {
+        // Arrange
+        CompletableFuture<EmployeePage> upstream = new CompletableFuture<>();
+        when(employeeService.getEmployeesPage(null, 1, null)).thenReturn(upstream);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(employeeController).build();
+
+        // Act: perform returns on the request thread before upstream has answered
+        MvcResult result = mockMvc.perform(get("/api/v1/employee").param("limit", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertFalse(result.getResponse().isCommitted());
+        upstream.complete(new EmployeePage(List.of(new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com")), "MQ"));
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(EmployeeController.NEXT_CURSOR_HEADER, "MQ"))
+                .andExpect(jsonPath("$[0].name").value("John Doe"));
+    }
+
+    @Test
+    @DisplayName("Test exportEmployees - One JSON object per line")
+    void testExportEmployees() throws Exception {
+        // Arrange
+        when(employeeService.forEachEmployee(any())).thenAnswer(invocation -> {
+            EmployeeJsonReader.EmployeeConsumer consumer = invocation.getArgument(0);
+            consumer.accept(new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com"));
+            consumer.accept(new Employee("2", "Jane Smith", 60000, 28, "Manager", "jane.smith@example.com"));
+            return 2L;
+        });
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = employeeController.exportEmployees();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        // Assert
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Jane Smith", objectMapper.readTree(lines[1]).get("name").asText());
     }
 
     @Test
@@ -83,6 +201,23 @@ class EmployeeControllerTest {
         verify(employeeService, times(1)).getHighestSalaryOfEmployees();
     }
 
+    @Test
+    @DisplayName("Test queryEmployees - Parameters passed through as a query")
+    void testQueryEmployees() {
+        // Arrange
+        List<Employee> matches = List.of(new Employee("2", "Jane Smith", 60000, 28, "Manager", "jane.smith@example.com"));
+        EmployeeQuery query = new EmployeeQuery(55000, null, null, 40, null, "Man", null, EmployeeQuery.Sort.SALARY_DESC, 5);
+        when(employeeService.queryEmployees(query)).thenReturn(matches);
+
+        // Act
+        ResponseEntity<List<Employee>> response = employeeController.queryEmployees(55000, null, null, 40, null, "Man", null, "-salary", 5);
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(matches, response.getBody());
+        verify(employeeService, times(1)).queryEmployees(query);
+    }
+
     @Test
     @DisplayName("Test createEmployee - Success")
     void testCreateEmployee() {
@@ -0,0 +1,117 @@
+package com.reliaquest.api;
+
+import com.reliaquest.api.client.EmployeeJsonReader;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeChanges;
+import com.reliaquest.api.model.EmployeePage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeJsonReaderTest {
+
+    private static final String LIST_RESPONSE = """
+            {"data":[
+              {"id":"4a3a170b-22cd-4ac2-aad1-9bb5b34a1507","employee_name":"Tiger Nixon","employee_salary":320800,"employee_age":61,
+               "employee_title":"Vice Chair Executive Principal","employee_email":"tnixon@company.com","unknown":{"nested":[1,2]}},
+              {"employee_email":"jill@company.com","employee_title":"Financial Advisor","employee_age":48,"employee_salary":139082,
+               "employee_name":"Jill Jenkins","id":"d005f39a-beb8-4390-afec-fd54e91d94ee"}
+            ],"status":"Successfully processed request."}
+            """;
+
+    private static ByteArrayInputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Reads an employee list regardless of field order, skipping unknown fields")
+    void testReadEmployeeList() throws IOException {
+        List<Employee> employees = EmployeeJsonReader.readEmployeeList(body(LIST_RESPONSE));
+
+        assertEquals(2, employees.size());
+        assertEquals("Tiger Nixon", employees.get(0).getName());
+        assertEquals(320800, employees.get(0).getSalary());
+        assertEquals("d005f39a-beb8-4390-afec-fd54e91d94ee", employees.get(1).getId());
+        assertEquals(48, employees.get(1).getAge());
+        assertEquals("jill@company.com", employees.get(1).getEmail());
+    }
+
+    @Test
+    @DisplayName("Hands employees to a consumer one at a time")
+    void testForEachEmployee() throws IOException {
+        List<String> names = new ArrayList<>();
+
+        long count = EmployeeJsonReader.forEachEmployee(body(LIST_RESPONSE), employee -> names.add(employee.getName()));
+
+        assertEquals(2, count);
+        assertEquals(List.of("Tiger Nixon", "Jill Jenkins"), names);
+    }
+
+    @Test
+    @DisplayName("Reads a page and its next cursor, which is absent on the last page")
+    void testReadEmployeePage() throws IOException {
+        EmployeePage page = EmployeeJsonReader.readEmployeePage(body(LIST_RESPONSE.replace("\"status\"", "\"next_cursor\":\"MQ\",\"status\"")));
+        EmployeePage lastPage = EmployeeJsonReader.readEmployeePage(body(LIST_RESPONSE));
+
+        assertEquals(2, page.employees().size());
+        assertEquals("Jill Jenkins", page.employees().get(1).getName());
+        assertEquals("MQ", page.nextCursor());
+        assertEquals(2, lastPage.employees().size());
+        assertNull(lastPage.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Reads per-entry results of bulk writes")
+    void testReadBulkItems() throws IOException {
+        List<EmployeeJsonReader.ItemResult<Employee>> created = EmployeeJsonReader.readCreatedItems(body("""
+                {"data":[{"data":{"id":"1","employee_name":"Bill Bob","employee_salary":89750},"status":"Successfully processed request."},
+                         {"status":"Failed to process request.","error":"salary must be greater than 0"}],"status":"Successfully processed request."}
+                """));
+        List<EmployeeJsonReader.ItemResult<Boolean>> deleted = EmployeeJsonReader.readDeletedItems(body("""
+                {"data":[{"data":true,"status":"Successfully processed request."},{"data":false,"status":"Successfully processed request."}]}
+                """));
+
+        assertEquals("Bill Bob", created.get(0).data().getName());
+        assertNull(created.get(1).data());
+        assertEquals("salary must be greater than 0", created.get(1).error());
+        assertEquals(List.of(true, false), deleted.stream().map(EmployeeJsonReader.ItemResult::data).toList());
+    }
+
+    @Test
+    @DisplayName("Reads change-feed entries in order with the version they lead to, rejecting unknown change types")
+    void testReadChanges() throws IOException {
+        EmployeeChanges changes = EmployeeJsonReader.readChanges(body("""
+                {"data":{"changes":[{"type":"CREATED","employee":{"id":"1","employee_name":"Bill Bob","employee_salary":89750}},
+                                    {"employee":{"id":"2","employee_name":"Jill Jenkins"},"type":"DELETED"}],
+                         "version":"m1x2-52"},"status":"Successfully processed request."}
+                """));
+
+        assertEquals("m1x2-52", changes.version());
+        assertEquals(List.of(EmployeeChanges.Type.CREATED, EmployeeChanges.Type.DELETED), changes.changes().stream().map(EmployeeChanges.Change::type).toList());
+        assertEquals("Bill Bob", changes.changes().get(0).employee().getName());
+        assertEquals("2", changes.changes().get(1).employee().getId());
+        assertThrows(IOException.class, () -> EmployeeJsonReader.readChanges(body("""
+                {"data":{"changes":[{"type":"UPDATED","employee":{"id":"1"}}],"version":"m1x2-53"}}
+                """)));
+    }
+
+    @Test
+    @DisplayName("Reads a single employee and delete results")
+    void testReadEmployeeAndDeleted() throws IOException {
+        Employee employee = EmployeeJsonReader.readEmployee(body("""
+                {"status":"Successfully processed request.","data":{"id":"1","employee_name":"Bill Bob","employee_salary":89750,"employee_age":24,"employee_title":"Documentation Engineer","employee_email":"billBob@company.com"}}
+                """));
+
+        assertEquals("Bill Bob", employee.getName());
+        assertTrue(EmployeeJsonReader.readDeleted(body("{\"data\":true,\"status\":\"Successfully processed request.\"}")));
+        assertFalse(EmployeeJsonReader.readDeleted(body("{\"data\":false,\"status\":\"Successfully processed request.\"}")));
+        assertThrows(IOException.class, () -> EmployeeJsonReader.readEmployee(body("{\"status\":\"Successfully processed request.\"}")));
+    }
+}
@@ -0,0 +1,218 @@
+package com.reliaquest.api;
+
+import com.reliaquest.api.cache.EmployeeLookupCache;
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.exception.EmployeeServiceUnavailableException;
+import com.reliaquest.api.model.Employee;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeLookupCacheTest {
+
+    private static final Employee JOHN = new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com");
+    private static final Employee JANE = new Employee("2", "Jane Smith", 60000, 28, "Manager", "jane.smith@example.com");
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private EmployeeLookupCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new EmployeeLookupCache(3, Duration.ofSeconds(30), Duration.ofSeconds(5), meterRegistry, clock);
+        loads = new AtomicInteger();
+    }
+
+    private Function<String, Employee> loader(Employee... employees) {
+        return id -> {
+            loads.incrementAndGet();
+            for (Employee employee : employees) {
+                if (employee.getId().equals(id)) {
+                    return employee;
+                }
+            }
+            throw new EmployeeNotFoundException("Employee with ID " + id + " not found.");
+        };
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("employee.cache.by-id.lookups").tag("result", result).counter().count();
+    }
+
+    @Test
+    @DisplayName("Found employees are served from the cache until the ttl passes")
+    void testHitUntilTtl() {
+        assertEquals(JOHN, cache.get("1", loader(JOHN)));
+        assertEquals(JOHN, cache.get("1", loader(JOHN)));
+        assertEquals(1, loads.get());
+
+        clock.advance(Duration.ofSeconds(30));
+        cache.get("1", loader(JOHN));
+        assertEquals(2, loads.get());
+        assertEquals(1, lookups("hit"));
+        assertEquals(2, lookups("miss"));
+    }
+
+    @Test
+    @DisplayName("Unknown ids are remembered for the negative ttl")
+    void testNegativeCaching() {
+        assertThrows(EmployeeNotFoundException.class, () -> cache.get("9", loader(JOHN)));
+        assertThrows(EmployeeNotFoundException.class, () -> cache.get("9", loader(JOHN)));
+        assertEquals(1, loads.get());
+        assertEquals(1, lookups("negative_hit"));
+
+        clock.advance(Duration.ofSeconds(5));
+        assertThrows(EmployeeNotFoundException.class, () -> cache.get("9", loader(JOHN)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Upstream failures other than not found are not cached")
+    void testFailuresNotCached() {
+        Function<String, Employee> failing = id -> {
+            loads.incrementAndGet();
+            throw new EmployeeServiceUnavailableException("circuit open");
+        };
+
+        assertThrows(EmployeeServiceUnavailableException.class, () -> cache.get("1", failing));
+        assertEquals(JOHN, cache.get("1", loader(JOHN)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Local writes replace negative entries and invalidate deleted ids")
+    void testWrites() {
+        assertThrows(EmployeeNotFoundException.class, () -> cache.get("2", loader()));
+        cache.put(JANE);
+        assertEquals(JANE, cache.get("2", loader()));
+
+        cache.invalidate("2");
+        assertThrows(EmployeeNotFoundException.class, () -> cache.get("2", loader()));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("A load that overlaps a local write is not cached")
+    void testLoadRacingWrite() {
+        assertEquals(JOHN, cache.get("1", id -> {
+            cache.invalidate("1"); // deleted while upstream was answering
+            return JOHN;
+        }));
+
+        cache.get("1", loader(JOHN));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("A write to another id doesn't stop a load from being cached")
+    void testLoadRacingWriteToOtherId() {
+        assertEquals(JOHN, cache.get("1", id -> {
+            cache.put(JANE);
+            cache.invalidate("3");
+            return JOHN;
+        }));
+
+        cache.get("1", loader(JOHN));
+        assertEquals(0, loads.get());
+        assertEquals(1, lookups("hit"));
+    }
+
+    @Test
+    @DisplayName("Loads overlapping invalidateAll, or too slow for writes to be remembered, are not cached")
+    void testLoadRacingInvalidateAllOrTooSlow() {
+        cache.get("1", id -> {
+            cache.invalidateAll();
+            return JOHN;
+        });
+        cache.get("2", id -> {
+            clock.advance(Duration.ofMinutes(1));
+            return JANE;
+        });
+
+        cache.get("1", loader(JOHN));
+        cache.get("2", loader(JANE));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Callers get their own copy, so changing one doesn't change the cached employee")
+    void testCallersGetCopies() {
+        Employee loaded = employee("1");
+        cache.get("1", loader(loaded)).setSalary(1);
+        loaded.setSalary(2);
+        cache.get("1", loader(loaded)).setSalary(3);
+
+        assertEquals(employee("1"), cache.get("1", loader(loaded)));
+        assertNotSame(cache.get("1", loader(loaded)), cache.get("1", loader(loaded)));
+
+        Employee written = employee("2");
+        cache.put(written);
+        written.setSalary(4);
+        assertEquals(employee("2"), cache.get("2", loader()));
+    }
+
+    @Test
+    @DisplayName("At capacity a one-off id doesn't displace frequently used ones")
+    void testFrequencyAdmission() {
+        Employee[] hot = {employee("a"), employee("b"), employee("c")};
+        for (int round = 0; round < 5; round++) {
+            for (Employee employee : hot) {
+                cache.get(employee.getId(), loader(hot));
+            }
+        }
+        int hotLoads = loads.get();
+
+        for (int i = 0; i < 20; i++) {
+            Employee oneOff = employee("x" + i);
+            cache.get(oneOff.getId(), loader(oneOff));
+        }
+        for (Employee employee : hot) {
+            cache.get(employee.getId(), loader(hot));
+        }
+
+        assertEquals(3, cache.size());
+        assertEquals(hotLoads + 20, loads.get());
+    }
+
+    private static Employee employee(String id) {
+        return new Employee(id, "Employee " + id, 50000, 30, "Developer", id + "@example.com");
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.reliaquest.api;
+
+import com.reliaquest.api.index.EmployeeNameIndex;
+import com.reliaquest.api.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EmployeeNameIndexTest {
+
+    private static final List<String> QUERIES = List.of("a", "an", "ann", "John", "SMITH", "th", "anna", "abcd", "o d", "zzz", "Doe");
+
+    private static Employee employee(String id, String name) {
+        return new Employee(id, name, 50000, 30, "Developer", id + "@example.com");
+    }
+
+    private static List<Employee> bruteForce(List<Employee> employees, String query) {
+        return employees.stream().filter(emp -> emp.getName().toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT))).toList();
+    }
+
+    @Test
+    @DisplayName("Search matches a case-insensitive contains scan, in list order")
+    void testSearchMatchesScan() {
+        List<Employee> employees = List.of(employee("1", "John Doe"), employee("2", "Jane Smith"), employee("3", "Annabelle Johnson"),
+                employee("4", "Hannah Annan"), employee("5", "abcxbcd"), employee("6", "Xabcd Smithers"));
+
+        EmployeeNameIndex index = EmployeeNameIndex.of(employees);
+
+        for (String query : QUERIES) {
+            assertEquals(bruteForce(employees, query), index.search(query), "query: " + query);
+        }
+    }
+
+    @Test
+    @DisplayName("Incremental adds and removes keep the index consistent")
+    void testIncrementalUpdates() {
+        List<Employee> employees = new ArrayList<>(List.of(employee("1", "John Doe"), employee("2", "Jane Smith"), employee("3", "Annabelle Johnson")));
+        EmployeeNameIndex index = EmployeeNameIndex.of(employees);
+
+        for (Employee added : List.of(employee("4", "Hannah Annan"), employee("5", "Anna Smith"), employee("6", "Johnny Doerr"))) {
+            employees.add(added);
+            index = index.withAdded(added);
+        }
+        for (String removedId : List.of("2", "4", "1", "5")) {
+            employees.removeIf(emp -> emp.getId().equals(removedId));
+            index = index.withRemoved(removedId);
+
+            for (String query : QUERIES) {
+                assertEquals(bruteForce(employees, query), index.search(query), "query: " + query);
+            }
+        }
+        assertEquals(employees.size(), index.size());
+    }
+
+    @Test
+    @DisplayName("Runs of writes long enough to merge the overlay keep earlier and later indexes consistent")
+    void testOverlayMerge() {
+        Random random = new Random(7);
+        List<Employee> employees = new ArrayList<>(List.of(employee("0", "John Doe"), employee("1", "Jane Smith")));
+        EmployeeNameIndex original = EmployeeNameIndex.of(employees);
+        EmployeeNameIndex index = original;
+        List<String> queries = new ArrayList<>(QUERIES);
+
+        for (int i = 2; i < 400; i++) {
+            String name = random.ints(8, 'a', 'z' + 1).collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append) + " Doe";
+            Employee added = employee(String.valueOf(i), name);
+            employees.add(added);
+            index = index.withAdded(added);
+            if (i % 3 == 0) {
+                String removedId = String.valueOf(i / 3);
+                employees.removeIf(emp -> emp.getId().equals(removedId));
+                index = index.withRemoved(removedId);
+            }
+            if (i % 50 == 0) {
+                queries.add(name.substring(2, 6));
+            }
+        }
+
+        for (String query : queries) {
+            assertEquals(bruteForce(employees, query), index.search(query), "query: " + query);
+        }
+        assertEquals(List.of(employee("0", "John Doe")), original.search("john"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.reliaquest.api;
+
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeQueryIndexTest {
+
+    private static final String[] TITLES = {"Developer", "Senior Developer", "Manager", "Designer", "Dev Lead"};
+
+    private static List<Employee> randomEmployees(int count, long seed) {
+        Random random = new Random(seed);
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Employee("id-" + i, "Person " + Integer.toString(random.nextInt(5000), 36), 30000 + random.nextInt(40) * 1000, 20 + random.nextInt(45),
+                        i % 11 == 0 ? null : TITLES[random.nextInt(TITLES.length)], i + "@example.com"))
+                .toList();
+    }
+
+    private static List<EmployeeQuery> randomQueries(long seed) {
+        Random random = new Random(seed);
+        List<EmployeeQuery> queries = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Integer minSalary = random.nextInt(3) == 0 ? 30000 + random.nextInt(40) * 1000 : null;
+            Integer maxSalary = random.nextInt(3) == 0 ? (minSalary == null ? 30000 : minSalary) + random.nextInt(20) * 1000 : null;
+            Integer minAge = random.nextInt(3) == 0 ? 20 + random.nextInt(40) : null;
+            Integer maxAge = random.nextInt(4) == 0 ? (minAge == null ? 20 : minAge) + random.nextInt(10) : null;
+            String title = random.nextInt(4) == 0 ? TITLES[random.nextInt(TITLES.length)] : null;
+            String titlePrefix = random.nextInt(4) == 0 ? List.of("Dev", "Senior", "M", "X").get(random.nextInt(4)) : null;
+            String name = random.nextInt(4) == 0 ? List.of("1", "ab", "PERSON 1", "son z", "qqq").get(random.nextInt(5)) : null;
+            EmployeeQuery.Sort sort = random.nextBoolean() ? EmployeeQuery.Sort.values()[random.nextInt(4)] : null;
+            Integer limit = random.nextBoolean() ? 1 + random.nextInt(50) : null;
+            queries.add(new EmployeeQuery(minSalary, maxSalary, minAge, maxAge, title, titlePrefix, name, sort, limit));
+        }
+        return queries;
+    }
+
+    private static List<Employee> bruteForce(List<Employee> employees, EmployeeQuery query) {
+        Stream<Employee> matches = employees.stream()
+                .filter(e -> query.minSalary() == null || e.getSalary() >= query.minSalary())
+                .filter(e -> query.maxSalary() == null || e.getSalary() <= query.maxSalary())
+                .filter(e -> query.minAge() == null || e.getAge() >= query.minAge())
+                .filter(e -> query.maxAge() == null || e.getAge() <= query.maxAge())
+                .filter(e -> query.title() == null || query.title().equals(e.getTitle()))
+                .filter(e -> query.titlePrefix() == null || (e.getTitle() != null && e.getTitle().startsWith(query.titlePrefix())))
+                .filter(e -> query.name() == null || (e.getName() != null && e.getName().toLowerCase().contains(query.name().toLowerCase())));
+        if (query.sort() != null) {
+            Comparator<Employee> order = Comparator.comparingInt(query.sort().bySalary() ? Employee::getSalary : Employee::getAge);
+            matches = matches.sorted(query.sort().descending() ? order.reversed() : order);
+        }
+        return matches.limit(query.limit() == null ? Long.MAX_VALUE : query.limit()).toList();
+    }
+
+    @Test
+    @DisplayName("Every filter, sort and limit combination matches a filter-then-stable-sort of the list")
+    void testMatchesBruteForce() {
+        List<Employee> employees = randomEmployees(3000, 1);
+        EmployeeSnapshot snapshot = new EmployeeSnapshot(employees, Instant.EPOCH);
+
+        for (EmployeeQuery query : randomQueries(2)) {
+            assertEquals(bruteForce(employees, query), snapshot.query(query), query.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Rows written after the index was built are found, removed rows are not, also across a compaction")
+    void testLocalWritesAfterIndexing() {
+        List<Employee> expected = new ArrayList<>(randomEmployees(2000, 3));
+        EmployeeSnapshot snapshot = new EmployeeSnapshot(expected, Instant.EPOCH);
+        snapshot.query(new EmployeeQuery(null, null, null, null, null, null, null, null, 1));
+
+        for (Employee employee : randomEmployees(2100, 4).subList(2000, 2100)) {
+            snapshot = snapshot.withAdded(employee);
+            expected.add(employee);
+        }
+        for (int remainder : new int[]{0, 1}) {
+            for (int i = remainder; i < 2100; i += 3) {
+                snapshot = snapshot.withRemoved("id-" + i);
+            }
+            int removed = remainder;
+            expected.removeIf(e -> Integer.parseInt(e.getId().substring(3)) % 3 == removed);
+            assertEquals(expected, snapshot.getEmployees());
+
+            for (EmployeeQuery query : randomQueries(5 + remainder)) {
+                assertEquals(bruteForce(expected, query), snapshot.query(query), query.toString());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Inconsistent ranges, a non-positive limit or an unknown sort are rejected")
+    void testInvalidQueries() {
+        assertThrows(IllegalArgumentException.class, () -> new EmployeeQuery(50000, 40000, null, null, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> new EmployeeQuery(null, null, 40, 30, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> new EmployeeQuery(null, null, null, null, null, null, null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> EmployeeQuery.Sort.parse("name"));
+        assertEquals(EmployeeQuery.Sort.SALARY_DESC, EmployeeQuery.Sort.parse("-salary"));
+    }
+}
@@ -1,29 +1,58 @@
 package com.reliaquest.api;
 
 
+import com.reliaquest.api.cache.EmployeeLookupCache;
+import com.reliaquest.api.cache.EmployeeSnapshotCache;
+import com.reliaquest.api.client.EmployeeJsonReader;
 import com.reliaquest.api.exception.EmployeeNotCreatedException;
+import com.reliaquest.api.exception.EmployeeNotDeletedException;
 import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.exception.EmployeeServiceUnavailableException;
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
+import com.reliaquest.api.model.BulkOutcome;
 import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeBatch;
+import com.reliaquest.api.model.EmployeePage;
 import com.reliaquest.api.service.EmployeeApiClient;
 import com.reliaquest.api.service.EmployeeserviceImpl;
+import com.reliaquest.api.service.UpstreamFanOut;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class EmployeeServiceTest {
 
     @Mock
     private EmployeeApiClient employeeApiClient; // Mocked external service client
+    @Spy
+    private EmployeeSnapshotCache snapshotCache = new EmployeeSnapshotCache(Duration.ofSeconds(30), Duration.ofSeconds(20), Duration.ofMinutes(10));
+    @Spy
+    private EmployeeLookupCache lookupCache = new EmployeeLookupCache(100, Duration.ofSeconds(30), Duration.ofSeconds(5), new SimpleMeterRegistry());
+    @Spy
+    private UpstreamFanOut fanOut = new UpstreamFanOut(2, 2);
     @InjectMocks
     EmployeeserviceImpl employeeService;
 
@@ -41,9 +70,9 @@ class EmployeeServiceTest {
     @DisplayName("Test getAllEmployees - Success with Mocked External Service")
     void testGetAllEmployees_MockedExternalService() {
         // Arrange
-        Map<String, Object> mockResponse = Map.of("data", List.of(Map.of("id", "1", "employee_name", "John Doe", "employee_salary", 50000, "employee_age", 30, "employee_title", "Developer", "employee_email", "john.doe@example.com"), Map.of("id", "2", "employee_name", "Jane Smith", "employee_salary", 60000, "employee_age", 28, "employee_title", "Manager", "employee_email", "jane.smith@example.com")));
+        List<Employee> mockResponse = List.of(new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com"), new Employee("2", "Jane Smith", 60000, 28, "Manager", "jane.smith@example.com"));
 
-        when(employeeApiClient.callEmployeeApi(BASE_URL, null)).thenReturn(mockResponse);
+        when(employeeApiClient.callEmployeeListApi(BASE_URL)).thenReturn(mockResponse);
 
         // Act
         List<Employee> employees = employeeService.getAllEmployees();
@@ -56,6 +85,105 @@ class EmployeeServiceTest {
     }
 
 
+    @Test
+    @DisplayName("Test getEmployeesPage - Fetches one upstream page without loading the snapshot")
+    void testGetEmployeesPage_PassesThroughUpstream() {
+        EmployeePage upstreamPage = new EmployeePage(List.of(new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com")), "MQ");
+        when(employeeApiClient.callEmployeePageApi(BASE_URL, null, 1, null)).thenReturn(CompletableFuture.completedFuture(upstreamPage));
+
+        EmployeePage page = employeeService.getEmployeesPage(null, 1, null).join();
+
+        assertEquals("MQ", page.nextCursor());
+        assertEquals("John Doe", page.employees().get(0).getName());
+        verify(employeeApiClient, never()).callEmployeeListApi(BASE_URL);
+    }
+
+    @Test
+    @DisplayName("Test getEmployeesPage - Rejects out of range limits and page combined with cursor")
+    void testGetEmployeesPage_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> employeeService.getEmployeesPage(null, 0, null));
+        assertThrows(IllegalArgumentException.class, () -> employeeService.getEmployeesPage(null, 1001, null));
+        assertThrows(IllegalArgumentException.class, () -> employeeService.getEmployeesPage(-1, 10, null));
+        assertThrows(IllegalArgumentException.class, () -> employeeService.getEmployeesPage(1, 10, "MQ"));
+    }
+
+    @Test
+    @DisplayName("Test read endpoints share one upstream call through the snapshot cache")
+    void testReadEndpoints_ServedFromSnapshot() {
+        List<Employee> mockResponse = List.of(new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com"), new Employee("2", "Jane Smith", 60000, 28, "Manager", "jane.smith@example.com"));
+        when(employeeApiClient.callEmployeeListApi(BASE_URL)).thenReturn(mockResponse);
+
+        employeeService.getAllEmployees();
+        employeeService.getEmployeesByNameSearch("Jane");
+        employeeService.getHighestSalaryOfEmployees();
+        employeeService.getTop10HighestEarningEmployeeNames();
+
+        verify(employeeApiClient, times(1)).callEmployeeListApi(BASE_URL);
+    }
+
+    @Test
+    @DisplayName("Test getEmployeesByIds - Snapshot hits locally, misses upstream, unknown ids reported")
+    void testGetEmployeesByIds_SnapshotThenUpstream() {
+        List<Employee> mockResponse = List.of(new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com"), new Employee("2", "Jane Smith", 60000, 28, "Manager", "jane.smith@example.com"));
+        when(employeeApiClient.callEmployeeListApi(BASE_URL)).thenReturn(mockResponse);
+        when(employeeApiClient.callEmployeeApi(BASE_URL, "3")).thenReturn(new Employee("3", "Alice Brown", 70000, 35, "Director", "alice.brown@example.com"));
+        when(employeeApiClient.callEmployeeApi(BASE_URL, "4")).thenThrow(new EmployeeNotFoundException("Employee with ID 4 not found."));
+        employeeService.getAllEmployees();
+
+        EmployeeBatch batch = employeeService.getEmployeesByIds(List.of("3", "2", "4", "2"));
+
+        assertEquals(List.of("Alice Brown", "Jane Smith"), batch.employees().stream().map(Employee::getName).toList());
+        assertEquals(List.of("4"), batch.notFound());
+        verify(employeeApiClient, never()).callEmployeeApi(BASE_URL, "2");
+    }
+
+    @Test
+    @DisplayName("Test getEmployeesByIds - Upstream outage fails the batch, bad input is rejected")
+    void testGetEmployeesByIds_Failures() {
+        when(employeeApiClient.callEmployeeApi(BASE_URL, "1")).thenThrow(new EmployeeServiceUnavailableException("Employee service is temporarily unavailable: 429"));
+
+        assertThrows(EmployeeServiceUnavailableException.class, () -> employeeService.getEmployeesByIds(List.of("1")));
+        assertThrows(IllegalArgumentException.class, () -> employeeService.getEmployeesByIds(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> employeeService.getEmployeesByIds(List.of("1", " ")));
+        assertThrows(IllegalArgumentException.class, () -> employeeService.getEmployeesByIds(IntStream.range(0, 101).mapToObj(String::valueOf).toList()));
+    }
+
+    @Test
+    @DisplayName("Test createEmployees - Chunks valid entries upstream and reports each outcome in order")
+    void testCreateEmployees_PerItemOutcomes() {
+        List<Employee> input = IntStream.range(0, 150).mapToObj(i -> new Employee(null, "Employee " + i, 50000, 30, "Developer", "e" + i + "@example.com")).collect(Collectors.toCollection(ArrayList::new));
+        input.set(3, new Employee(null, "", 50000, 30, "Developer", "bad@example.com"));
+        when(employeeApiClient.callEmployeeBulkCreateApi(eq(BASE_URL), anyList())).thenAnswer(invocation -> {
+            List<Employee> chunk = invocation.getArgument(1);
+            return chunk.stream().map(employee -> employee.getName().equals("Employee 7")
+                    ? new EmployeeJsonReader.ItemResult<Employee>(null, "salary must be greater than 0")
+                    : new EmployeeJsonReader.ItemResult<>(new Employee("id-" + employee.getName(), employee.getName(), employee.getSalary(), employee.getAge(), employee.getTitle(), employee.getEmail()), null)).toList();
+        });
+
+        List<BulkOutcome> outcomes = employeeService.createEmployees(input);
+
+        assertEquals(150, outcomes.size());
+        assertEquals(BulkOutcome.Status.CREATED, outcomes.get(0).status());
+        assertEquals("id-Employee 149", outcomes.get(149).id());
+        assertEquals(BulkOutcome.Status.INVALID, outcomes.get(3).status());
+        assertEquals(BulkOutcome.Status.FAILED, outcomes.get(7).status());
+        assertEquals("salary must be greater than 0", outcomes.get(7).error());
+        verify(employeeApiClient, times(2)).callEmployeeBulkCreateApi(eq(BASE_URL), anyList());
+    }
+
+    @Test
+    @DisplayName("Test deleteEmployeesByIds - Resolves names, deletes in bulk, reports unknown and duplicate ids")
+    void testDeleteEmployeesByIds_PerItemOutcomes() {
+        when(employeeApiClient.callEmployeeApi(BASE_URL, "1")).thenReturn(new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com"));
+        when(employeeApiClient.callEmployeeApi(BASE_URL, "2")).thenThrow(new EmployeeNotFoundException("Employee with ID 2 not found."));
+        when(employeeApiClient.callEmployeeBulkDeleteApi(BASE_URL, List.of("John Doe"))).thenReturn(List.of(new EmployeeJsonReader.ItemResult<>(true, null)));
+
+        List<BulkOutcome> outcomes = employeeService.deleteEmployeesByIds(List.of("1", "2", "1"));
+
+        assertEquals(List.of(BulkOutcome.Status.DELETED, BulkOutcome.Status.NOT_FOUND, BulkOutcome.Status.INVALID), outcomes.stream().map(BulkOutcome::status).toList());
+        assertThrows(IllegalArgumentException.class, () -> employeeService.deleteEmployeesByIds(List.of()));
+    }
+
     @Test
     @DisplayName("Test getEmployeeById - Employee Not Found")
     void testGetEmployeeById_NotFound() {
@@ -65,12 +193,28 @@ class EmployeeServiceTest {
         assertThrows(EmployeeNotFoundException.class, () -> employeeService.getEmployeeById(id));
     }
 
+    @Test
+    @DisplayName("Test getEmployeeById - Repeat lookups are cached until the employee is deleted")
+    void testGetEmployeeById_CachedUntilDeleted() {
+        Employee john = new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com");
+        when(employeeApiClient.callEmployeeApi(BASE_URL, "1")).thenReturn(john);
+        when(employeeApiClient.callEmployeeDeleteApi(BASE_URL, "John Doe")).thenReturn(true);
+
+        assertEquals(john, employeeService.getEmployeeById("1"));
+        assertEquals(john, employeeService.getEmployeeById("1"));
+        verify(employeeApiClient, times(1)).callEmployeeApi(BASE_URL, "1");
+
+        employeeService.deleteEmployeeById("1");
+        employeeService.getEmployeeById("1");
+        verify(employeeApiClient, times(2)).callEmployeeApi(BASE_URL, "1");
+    }
+
     @Test
     @DisplayName("Test getEmployeesByNameSearch - Mock External Call")
     void testGetEmployeesByNameSearch_MockExternalCall() {
         String name = "John";
-        Map<String, Object> mockResponse = Map.of("data", List.of(Map.of("id", "1", "employee_name", "John Doe", "employee_salary", 50000, "employee_age", 30, "employee_title", "Developer", "employee_email", "john.doe@example.com"), Map.of("id", "2", "employee_name", "Jane Smith", "employee_salary", 60000, "employee_age", 28, "employee_title", "Manager", "employee_email", "jane.smith@example.com")));
-        when(employeeApiClient.callEmployeeApi(BASE_URL, null)).thenReturn(mockResponse);
+        List<Employee> mockResponse = List.of(new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com"), new Employee("2", "Jane Smith", 60000, 28, "Manager", "jane.smith@example.com"));
+        when(employeeApiClient.callEmployeeListApi(BASE_URL)).thenReturn(mockResponse);
 
         List<Object> employees = employeeService.getEmployeesByNameSearch(name);
 
@@ -79,23 +223,129 @@ class EmployeeServiceTest {
         assertEquals("John Doe", ((Employee) employees.get(0)).getName());
     }
 
+    @Test
+    @DisplayName("Read and write endpoints pass rate limiting on as 503, not as not found or not created")
+    void testRateLimitedSurfacesAsUnavailable() {
+        UpstreamRateLimitedException limited = new UpstreamRateLimitedException("Upstream rate limit reached, retry in 30s", Duration.ofSeconds(30));
+        when(employeeApiClient.callEmployeeListApi(BASE_URL)).thenThrow(limited);
+        when(employeeApiClient.callEmployeeCreateApi(eq(BASE_URL), any(), eq(null))).thenThrow(limited);
+
+        assertSame(limited, assertThrows(UpstreamRateLimitedException.class, () -> employeeService.getEmployeesByNameSearch("John")));
+        assertSame(limited, assertThrows(UpstreamRateLimitedException.class, () -> employeeService.getHighestSalaryOfEmployees()));
+        assertSame(limited, assertThrows(UpstreamRateLimitedException.class, () -> employeeService.createEmployee(new Employee(null, "Alice Brown", 70000, 35, "Director", "alice.brown@example.com"))));
+    }
+
     @Test
     @DisplayName("Test getHighestSalaryOfEmployees - Mock External Call")
     void testGetHighestSalaryOfEmployees_MockExternalCall() {
-        Map<String, Object> mockResponse = Map.of("data", List.of(Map.of("id", "1", "employee_name", "John Doe", "employee_salary", 50000, "employee_age", 30, "employee_title", "Developer", "employee_email", "john.doe@example.com"), Map.of("id", "2", "employee_name", "Jane Smith", "employee_salary", 60000, "employee_age", 28, "employee_title", "Manager", "employee_email", "jane.smith@example.com")));
-        when(employeeApiClient.callEmployeeApi(BASE_URL, null)).thenReturn(mockResponse);
+        List<Employee> mockResponse = List.of(new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com"), new Employee("2", "Jane Smith", 60000, 28, "Manager", "jane.smith@example.com"));
+        when(employeeApiClient.callEmployeeListApi(BASE_URL)).thenReturn(mockResponse);
 
         int highestSalary = employeeService.getHighestSalaryOfEmployees();
 
         assertEquals(60000, highestSalary);
     }
 
+    @Test
+    @DisplayName("deleteEmployeeById - Deletes upstream by the employee's name")
+    void testDeleteEmployeeById_DeletesByName() {
+        String id = "1";
+        Employee employee = new Employee(id, "John Doe", 50000, 30, "Developer", "john.doe@example.com");
+        when(employeeApiClient.callEmployeeApi(BASE_URL, id)).thenReturn(employee);
+        when(employeeApiClient.callEmployeeDeleteApi(BASE_URL, "John Doe")).thenReturn(true);
+
+        String message = employeeService.deleteEmployeeById(id);
+
+        assertEquals("Employee with ID 1 deleted successfully.", message);
+        verify(employeeApiClient, times(1)).callEmployeeDeleteApi(BASE_URL, "John Doe");
+    }
+
+    @Test
+    @DisplayName("deleteEmployeeById - Upstream did not delete")
+    void testDeleteEmployeeById_NotDeleted() {
+        String id = "1";
+        Employee employee = new Employee(id, "John Doe", 50000, 30, "Developer", "john.doe@example.com");
+        when(employeeApiClient.callEmployeeApi(BASE_URL, id)).thenReturn(employee);
+        when(employeeApiClient.callEmployeeDeleteApi(BASE_URL, "John Doe")).thenReturn(false);
+
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.deleteEmployeeById(id));
+    }
+
+    @Test
+    @DisplayName("deleteEmployeeById - Refuses to delete by a name another employee shares")
+    void testDeleteEmployeeById_SharedName() {
+        Employee john = new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com");
+        when(employeeApiClient.callEmployeeListApi(BASE_URL)).thenReturn(List.of(john, new Employee("2", "john doe", 60000, 40, "Manager", "jd@example.com")));
+        when(employeeApiClient.callEmployeeApi(BASE_URL, "1")).thenReturn(john);
+
+        assertThrows(EmployeeNotDeletedException.class, () -> employeeService.deleteEmployeeById("1"));
+        verify(employeeApiClient, never()).callEmployeeDeleteApi(eq(BASE_URL), anyString());
+    }
+
+    @Test
+    @DisplayName("deleteEmployeeById - Reports a conflict when upstream deleted someone else of the same name")
+    void testDeleteEmployeeById_OtherEmployeeDeleted() {
+        Employee john = new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com");
+        // the snapshot never saw the other John Doe, and reading back after the delete still finds this one
+        when(employeeApiClient.callEmployeeListApi(BASE_URL)).thenReturn(List.of(john));
+        when(employeeApiClient.callEmployeeApi(BASE_URL, "1")).thenReturn(john);
+        when(employeeApiClient.callEmployeeDeleteApi(BASE_URL, "John Doe")).thenReturn(true);
+
+        assertThrows(EmployeeNotDeletedException.class, () -> employeeService.deleteEmployeeById("1"));
+        assertEquals(List.of(john), employeeService.getAllEmployees());
+        verify(employeeApiClient, times(2)).callEmployeeListApi(BASE_URL);
+    }
+
+    @Test
+    @DisplayName("deleteEmployeeById - An employee the snapshot knows costs only the delete and the read-back")
+    void testDeleteEmployeeById_ResolvedFromSnapshot() {
+        Employee john = new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com");
+        Employee jane = new Employee("2", "Jane Smith", 60000, 28, "Manager", "jane.smith@example.com");
+        when(employeeApiClient.callEmployeeListApi(BASE_URL)).thenReturn(List.of(john, jane)).thenReturn(List.of(jane));
+        when(employeeApiClient.callEmployeeDeleteApi(BASE_URL, "John Doe")).thenReturn(true);
+        employeeService.getAllEmployees();
+
+        assertEquals("Employee with ID 1 deleted successfully.", employeeService.deleteEmployeeById("1"));
+        verify(employeeApiClient, never()).callEmployeeApi(eq(BASE_URL), anyString());
+        verify(employeeApiClient, times(1)).callEmployeeDeleteApi(BASE_URL, "John Doe");
+        verify(employeeApiClient, times(2)).callEmployeeListApi(BASE_URL);
+    }
+
+    @Test
+    @DisplayName("deleteEmployeeById - A delete that can't be read back is reported unavailable, not deleted")
+    void testDeleteEmployeeById_Unverified() {
+        Employee john = new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com");
+        when(employeeApiClient.callEmployeeListApi(BASE_URL)).thenReturn(List.of(john)).thenThrow(new UpstreamRateLimitedException("Upstream rate limit reached, retry in 30s", Duration.ofSeconds(30)));
+        when(employeeApiClient.callEmployeeDeleteApi(BASE_URL, "John Doe")).thenReturn(true);
+        employeeService.getAllEmployees();
+
+        UpstreamRateLimitedException ex = assertThrows(UpstreamRateLimitedException.class, () -> employeeService.deleteEmployeeById("1"));
+        assertEquals(Duration.ofSeconds(30), ex.getRetryAfter());
+        assertTrue(ex.getMessage().startsWith("Employee service deleted by name but could not confirm"));
+    }
+
+    @Test
+    @DisplayName("deleteEmployeesByIds - Entries sharing a name fail without an upstream delete")
+    void testDeleteEmployeesByIds_SharedName() {
+        Employee john = new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com");
+        Employee otherJohn = new Employee("2", "John Doe", 60000, 40, "Manager", "jd@example.com");
+        Employee jane = new Employee("3", "Jane Smith", 60000, 28, "Manager", "jane.smith@example.com");
+        when(employeeApiClient.callEmployeeListApi(BASE_URL)).thenReturn(List.of(john, otherJohn, jane)).thenReturn(List.of(john, otherJohn));
+        when(employeeApiClient.callEmployeeBulkDeleteApi(BASE_URL, List.of("Jane Smith"))).thenReturn(List.of(new EmployeeJsonReader.ItemResult<>(true, null)));
+
+        employeeService.getAllEmployees(); // ids resolve from the snapshot
+        List<BulkOutcome> outcomes = employeeService.deleteEmployeesByIds(List.of("1", "3"));
+
+        assertEquals(List.of(BulkOutcome.Status.FAILED, BulkOutcome.Status.DELETED), outcomes.stream().map(BulkOutcome::status).toList());
+        assertEquals(List.of(john, otherJohn), employeeService.getAllEmployees());
+    }
+
     @Test
     @DisplayName("createEmployee - External Service Unavailable")
     void testCreateEmployee_RestTemplateException() {
         Employee newEmployee = new Employee(null, "Alice Brown", 70000, 35, "Director", "alice.brown@example.com");
 
-        when(employeeApiClient.callEmployeeApi(BASE_URL, null)).thenThrow(new RuntimeException("Employee service is temporarily unavailable:"));
+        when(employeeApiClient.callEmployeeCreateApi(BASE_URL, newEmployee, null)).thenThrow(new RuntimeException("Employee service is temporarily unavailable:"));
 
         EmployeeNotCreatedException exception = assertThrows(EmployeeNotCreatedException.class, () -> employeeService.createEmployee(newEmployee));
 
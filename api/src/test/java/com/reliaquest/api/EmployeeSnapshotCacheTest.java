@@ -0,0 +1,320 @@
+package com.reliaquest.api;
+
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.cache.EmployeeSnapshotCache;
+import com.reliaquest.api.exception.EmployeeServiceUnavailableException;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeChanges;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeSnapshotCacheTest {
+
+    private static final Employee JOHN = new Employee("1", "John Doe", 50000, 30, "Developer", "john.doe@example.com");
+    private static final Employee JANE = new Employee("2", "Jane Smith", 60000, 28, "Manager", "jane.smith@example.com");
+
+    private MutableClock clock;
+    private EmployeeSnapshotCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        cache = new EmployeeSnapshotCache(Duration.ofSeconds(30), Duration.ofSeconds(20), Duration.ofMinutes(10), clock);
+        loads = new AtomicInteger();
+    }
+
+    private Supplier<List<Employee>> loader(List<Employee> employees) {
+        return () -> {
+            loads.incrementAndGet();
+            return employees;
+        };
+    }
+
+    @Test
+    @DisplayName("Fresh snapshot is served without reloading")
+    void testFreshSnapshotServedFromCache() {
+        cache.get(loader(List.of(JOHN)));
+        clock.advance(Duration.ofSeconds(10));
+
+        EmployeeSnapshot snapshot = cache.get(loader(List.of(JOHN, JANE)));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, snapshot.getEmployees().size());
+    }
+
+    @Test
+    @DisplayName("Expired snapshot is reloaded on the calling thread")
+    void testExpiredSnapshotReloaded() {
+        cache.get(loader(List.of(JOHN)));
+        clock.advance(Duration.ofSeconds(31));
+
+        EmployeeSnapshot snapshot = cache.get(loader(List.of(JOHN, JANE)));
+
+        assertEquals(2, loads.get());
+        assertEquals(2, snapshot.getEmployees().size());
+    }
+
+    @Test
+    @DisplayName("Snapshot past refresh-ahead is served while a background reload runs")
+    void testRefreshAhead() throws InterruptedException {
+        cache.get(loader(List.of(JOHN)));
+        clock.advance(Duration.ofSeconds(25));
+        CountDownLatch reloaded = new CountDownLatch(1);
+
+        EmployeeSnapshot snapshot = cache.get(() -> {
+            reloaded.countDown();
+            return List.of(JOHN, JANE);
+        });
+
+        assertEquals(1, snapshot.getEmployees().size());
+        assertTrue(reloaded.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Stale snapshot is served while upstream is unavailable")
+    void testStaleWhileUnavailable() {
+        cache.get(loader(List.of(JOHN)));
+        clock.advance(Duration.ofMinutes(5));
+
+        EmployeeSnapshot snapshot = cache.get(() -> {
+            throw new EmployeeServiceUnavailableException("429 Too Many Requests");
+        });
+
+        assertEquals(List.of(JOHN), snapshot.getEmployees());
+    }
+
+    @Test
+    @DisplayName("Unavailable upstream is surfaced once the snapshot is past max-stale")
+    void testTooStaleRethrows() {
+        cache.get(loader(List.of(JOHN)));
+        clock.advance(Duration.ofMinutes(11));
+
+        assertThrows(EmployeeServiceUnavailableException.class, () -> cache.get(() -> {
+            throw new EmployeeServiceUnavailableException("circuit open");
+        }));
+    }
+
+    @Test
+    @DisplayName("A reload at the version the snapshot was loaded at (upstream 304) keeps the indexes and only restarts the clock")
+    void testNotModifiedReloadReusesSnapshot() {
+        FeedLoader loader = new FeedLoader(new ArrayList<>(List.of(JOHN, JANE)), "v1");
+        EmployeeSnapshot first = cache.get(loader);
+        clock.advance(Duration.ofSeconds(31));
+
+        EmployeeSnapshot reloaded = cache.get(loader);
+
+        assertEquals(2, loads.get());
+        assertSame(first.getNameIndex(), reloaded.getNameIndex());
+        assertEquals(first.getETag(), reloaded.getETag());
+        assertEquals(clock.instant(), reloaded.getLoadedAt());
+    }
+
+    @Test
+    @DisplayName("The ETag follows the content, not the snapshot instance")
+    void testETagFollowsContent() {
+        EmployeeSnapshot snapshot = cache.get(loader(List.of(JOHN)));
+        String etag = snapshot.getETag();
+
+        assertEquals(etag, new EmployeeSnapshot(List.of(JOHN), clock.instant()).getETag());
+        assertNotEquals(etag, snapshot.withAdded(JANE).getETag());
+        assertEquals(etag, snapshot.withAdded(JANE).withRemoved("2").getETag());
+    }
+
+    @Test
+    @DisplayName("An expired snapshot with a change-feed version is caught up from the feed instead of reloaded")
+    void testCatchesUpFromChangeFeed() {
+        Employee bob = new Employee("3", "Bob Stone", 70000, 40, "Architect", "bob.stone@example.com");
+        FeedLoader loader = new FeedLoader(List.of(JOHN, JANE), "v1");
+        cache.get(loader);
+        // a write made through this api shows up locally first, then again in the feed
+        cache.update(snapshot -> snapshot.withAdded(bob));
+        loader.changes = Optional.of(new EmployeeChanges(List.of(
+                new EmployeeChanges.Change(EmployeeChanges.Type.CREATED, bob),
+                new EmployeeChanges.Change(EmployeeChanges.Type.DELETED, JOHN)), "v3"));
+        clock.advance(Duration.ofSeconds(31));
+
+        EmployeeSnapshot snapshot = cache.get(loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(List.of("v1"), loader.requestedSince);
+        assertEquals(List.of(JANE, bob), snapshot.getEmployees());
+        assertEquals("v3", snapshot.getVersion());
+        assertEquals(clock.instant(), snapshot.getLoadedAt());
+        assertEquals(new EmployeeSnapshot(List.of(JANE, bob), clock.instant()).getETag(), snapshot.getETag());
+    }
+
+    @Test
+    @DisplayName("The whole list is reloaded when the change feed can't reach back to the snapshot's version")
+    void testReloadsWhenChangeFeedGone() {
+        FeedLoader loader = new FeedLoader(List.of(JOHN), "v1");
+        cache.get(loader);
+        loader.employees = List.of(JOHN, JANE);
+        loader.version = "v9";
+        clock.advance(Duration.ofSeconds(31));
+
+        EmployeeSnapshot snapshot = cache.get(loader);
+
+        assertEquals(2, loads.get());
+        assertEquals(List.of(JOHN, JANE), snapshot.getEmployees());
+        assertEquals("v9", snapshot.getVersion());
+    }
+
+    @Test
+    @DisplayName("Large change batches give the same result as applying them one at a time")
+    void testLargeChangeBatch() {
+        List<Employee> created = new ArrayList<>();
+        List<EmployeeChanges.Change> changes = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Employee employee = new Employee("n" + i, "New " + i, 1000 * i, 30, "Analyst", "new" + i + "@example.com");
+            created.add(employee);
+            changes.add(new EmployeeChanges.Change(EmployeeChanges.Type.CREATED, employee));
+        }
+        changes.add(new EmployeeChanges.Change(EmployeeChanges.Type.DELETED, created.get(0)));
+        changes.add(new EmployeeChanges.Change(EmployeeChanges.Type.DELETED, JOHN));
+        EmployeeSnapshot snapshot = new EmployeeSnapshot(List.of(JOHN, JANE), clock.instant(), "v1");
+
+        EmployeeSnapshot caughtUp = snapshot.withChanges(new EmployeeChanges(changes, "v43"), clock.instant());
+
+        assertEquals(40, caughtUp.getEmployees().size());
+        assertEquals(JANE, caughtUp.getEmployees().get(0));
+        assertEquals(created.subList(1, 40), caughtUp.getEmployees().subList(1, 40));
+        assertEquals(40, caughtUp.getSalaryAggregates().getCount());
+        assertEquals("v43", caughtUp.getVersion());
+    }
+
+    @Test
+    @DisplayName("A reload at the same version still rebuilds a snapshot that was written to locally")
+    void testNotModifiedReloadAfterLocalWrite() {
+        FeedLoader loader = new FeedLoader(List.of(JOHN), "v1");
+        cache.get(loader);
+        cache.update(snapshot -> snapshot.withAdded(JANE));
+        clock.advance(Duration.ofSeconds(31));
+
+        assertEquals(List.of(JOHN), cache.get(loader).getEmployees());
+    }
+
+    @Test
+    @DisplayName("Local writes are applied to the cached snapshot")
+    void testUpdateAppliesLocalWrites() {
+        cache.get(loader(List.of(JOHN)));
+
+        cache.update(snapshot -> snapshot.withAdded(JANE));
+        cache.update(snapshot -> snapshot.withRemoved("1"));
+
+        assertEquals(List.of(JANE), cache.get(loader(List.of())).getEmployees());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Local writes made while the list reloads are replayed onto it, once")
+    void testLocalWritesDuringReload() {
+        Employee bob = new Employee("3", "Bob Stone", 70000, 40, "Architect", "bob.stone@example.com");
+        FeedLoader loader = new FeedLoader(List.of(JOHN, JANE), null);
+        cache.get(loader);
+        // upstream answered before bob was created and after jane was, which was already applied locally
+        loader.employees = List.of(JOHN, JANE);
+        loader.whileFetching = () -> {
+            cache.update(snapshot -> snapshot.withAdded(bob));
+            cache.update(snapshot -> snapshot.withAdded(JANE));
+            cache.update(snapshot -> snapshot.withRemovedAll(Set.of("1")));
+        };
+        clock.advance(Duration.ofSeconds(31));
+
+        assertEquals(List.of(JANE, bob), cache.get(loader).getEmployees());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Local writes made while the change feed is read stay in the caught-up snapshot")
+    void testLocalWritesDuringCatchUp() {
+        Employee bob = new Employee("3", "Bob Stone", 70000, 40, "Architect", "bob.stone@example.com");
+        FeedLoader loader = new FeedLoader(List.of(JOHN, JANE), "v1");
+        cache.get(loader);
+        loader.changes = Optional.of(new EmployeeChanges(List.of(new EmployeeChanges.Change(EmployeeChanges.Type.DELETED, JOHN)), "v2"));
+        loader.whileFetching = () -> cache.update(snapshot -> snapshot.withAdded(bob));
+        clock.advance(Duration.ofSeconds(31));
+
+        EmployeeSnapshot snapshot = cache.get(loader);
+
+        assertEquals(List.of(JANE, bob), snapshot.getEmployees());
+        assertEquals("v2", snapshot.getVersion());
+        assertEquals(1, loads.get());
+    }
+
+    private class FeedLoader implements EmployeeSnapshotCache.Loader {
+
+        private List<Employee> employees;
+        private String version;
+        private Optional<EmployeeChanges> changes = Optional.empty();
+        private final List<String> requestedSince = new ArrayList<>();
+        // runs while upstream is being asked, as a concurrent local write would
+        private Runnable whileFetching = () -> {
+        };
+
+        FeedLoader(List<Employee> employees, String version) {
+            this.employees = employees;
+            this.version = version;
+        }
+
+        @Override
+        public List<Employee> loadAll() {
+            loads.incrementAndGet();
+            whileFetching.run();
+            return employees;
+        }
+
+        @Override
+        public String versionOf(List<Employee> loaded) {
+            return loaded == employees ? version : null;
+        }
+
+        @Override
+        public Optional<EmployeeChanges> changesSince(String since) {
+            requestedSince.add(since);
+            whileFetching.run();
+            return changes;
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
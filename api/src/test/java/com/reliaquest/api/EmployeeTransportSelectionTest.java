@@ -0,0 +1,43 @@
+package com.reliaquest.api;
+
+import com.reliaquest.api.client.EmployeeTransport;
+import com.reliaquest.api.client.RestTemplateEmployeeTransport;
+import com.reliaquest.api.client.WebClientEmployeeTransport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class EmployeeTransportSelectionTest {
+
+    @Nested
+    @SpringBootTest
+    class DefaultTransport {
+
+        @Autowired
+        private EmployeeTransport transport;
+
+        @Test
+        @DisplayName("RestTemplate transport is used by default")
+        void testDefaultIsRestTemplate() {
+            assertInstanceOf(RestTemplateEmployeeTransport.class, transport);
+        }
+    }
+
+    @Nested
+    @SpringBootTest(properties = "employee.http.client=web-client")
+    class WebClientTransport {
+
+        @Autowired
+        private EmployeeTransport transport;
+
+        @Test
+        @DisplayName("WebClient transport is used when configured")
+        void testWebClientSelected() {
+            assertInstanceOf(WebClientEmployeeTransport.class, transport);
+        }
+    }
+}
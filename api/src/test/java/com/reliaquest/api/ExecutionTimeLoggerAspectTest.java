@@ -0,0 +1,69 @@
+package com.reliaquest.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.aspect.ExecutionTimeLoggerAspect;
+import com.reliaquest.api.controller.EmployeeController;
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.service.EmployeeService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExecutionTimeLoggerAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmployeeService employeeService;
+    private EmployeeController controller;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        employeeService = mock(EmployeeService.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new EmployeeController(employeeService, new ObjectMapper()));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ExecutionTimeLoggerAspect(meterRegistry, false));
+        controller = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Controller calls are recorded per method with percentiles")
+    void testControllerCallTimed() {
+        when(employeeService.getHighestSalaryOfEmployees()).thenReturn(100);
+
+        controller.getHighestSalaryOfEmployees();
+        controller.getHighestSalaryOfEmployees();
+
+        Timer timer = meterRegistry.get(ExecutionTimeLoggerAspect.API_TIMER)
+                .tag("class", "EmployeeController")
+                .tag("method", "getHighestSalaryOfEmployees")
+                .tag("exception", "none")
+                .timer();
+        assertEquals(2, timer.count());
+        double[] percentiles = Arrays.stream(timer.takeSnapshot().percentileValues()).mapToDouble(ValueAtPercentile::percentile).toArray();
+        assertArrayEquals(new double[]{0.5, 0.95, 0.99}, percentiles);
+    }
+
+    @Test
+    @DisplayName("Failed controller calls are tagged with the exception and still rethrown")
+    void testFailedCallTaggedWithException() {
+        when(employeeService.getEmployeeById("x")).thenThrow(new EmployeeNotFoundException("not found"));
+
+        assertThrows(EmployeeNotFoundException.class, () -> controller.getEmployeeById("x"));
+
+        Timer timer = meterRegistry.get(ExecutionTimeLoggerAspect.API_TIMER)
+                .tag("method", "getEmployeeById")
+                .tag("exception", "EmployeeNotFoundException")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+}
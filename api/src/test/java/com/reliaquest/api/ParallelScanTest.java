@@ -0,0 +1,91 @@
+package com.reliaquest.api;
+
+import com.reliaquest.api.index.EmployeeColumns;
+import com.reliaquest.api.index.EmployeeNameIndex;
+import com.reliaquest.api.index.ParallelScan;
+import com.reliaquest.api.index.SalaryAggregates;
+import com.reliaquest.api.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelScanTest {
+
+    private final ParallelScan parallel = new ParallelScan(1000, 4);
+
+    @AfterEach
+    void tearDown() {
+        parallel.shutdown();
+    }
+
+    // few distinct salaries, so the top K is decided by ties across chunk boundaries
+    private static EmployeeColumns columns(int count) {
+        Random random = new Random(7);
+        List<Employee> employees = IntStream.range(0, count)
+                .mapToObj(i -> new Employee("id-" + i, "Person " + Integer.toString(i, 36), 30000 + random.nextInt(20) * 1000, 30, "Developer", i + "@example.com"))
+                .toList();
+        Set<String> removed = new HashSet<>();
+        for (int i = 0; i < count; i += 7) {
+            removed.add("id-" + i);
+        }
+        return EmployeeColumns.of(employees).withRemovedAll(removed);
+    }
+
+    @Test
+    @DisplayName("Ranges are merged lower first, so ordered results match a sequential scan")
+    void testReducePreservesOrder() {
+        List<Integer> ordinals = parallel.reduce(100_000, (from, to) -> {
+            List<Integer> range = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                range.add(i);
+            }
+            return range;
+        }, (lower, higher) -> {
+            lower.addAll(higher);
+            return lower;
+        });
+
+        assertTrue(parallel.isParallel(100_000));
+        assertFalse(parallel.isParallel(999));
+        assertEquals(IntStream.range(0, 100_000).boxed().toList(), ordinals);
+    }
+
+    @Test
+    @DisplayName("Parallel aggregation matches the sequential pass, top earners and their tie order included")
+    void testParallelAggregatesMatchSequential() {
+        EmployeeColumns columns = columns(60_000);
+
+        for (int topK : new int[]{0, 1, 10, 500}) {
+            SalaryAggregates sequential = SalaryAggregates.of(columns, topK);
+            SalaryAggregates parallelAggregates = SalaryAggregates.of(columns, topK, parallel);
+
+            assertEquals(sequential.getCount(), parallelAggregates.getCount());
+            assertEquals(sequential.getMin(), parallelAggregates.getMin());
+            assertEquals(sequential.getMax(), parallelAggregates.getMax());
+            assertEquals(sequential.getAverage(), parallelAggregates.getAverage(), 0.0001);
+            assertEquals(sequential.getTopEarners(), parallelAggregates.getTopEarners());
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel name search returns the sequential search's matches in list order")
+    void testParallelSearchMatchesSequential() {
+        EmployeeColumns columns = columns(60_000);
+        EmployeeNameIndex sequential = EmployeeNameIndex.of(columns);
+        EmployeeNameIndex parallelIndex = EmployeeNameIndex.of(columns, parallel);
+
+        for (String query : List.of("p", "1a", "person", "SON 1", "nobody")) {
+            assertEquals(sequential.search(query), parallelIndex.search(query), query);
+        }
+        assertEquals(columns.size(), parallelIndex.search("person").size());
+    }
+}
@@ -0,0 +1,73 @@
+package com.reliaquest.api;
+
+import com.reliaquest.api.index.SalaryAggregates;
+import com.reliaquest.api.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SalaryAggregatesTest {
+
+    private static List<Employee> randomEmployees(int count, long seed) {
+        Random random = new Random(seed);
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Employee(String.valueOf(i), "Employee " + i, 30000 + random.nextInt(50) * 1000, 30, "Developer", i + "@example.com"))
+                .toList();
+    }
+
+    private static List<String> sortedTopNames(List<Employee> employees, int k) {
+        return employees.stream().sorted(Comparator.comparingInt(Employee::getSalary).reversed()).limit(k).map(Employee::getName).toList();
+    }
+
+    @Test
+    @DisplayName("Top earners match a stable full sort, including ties")
+    void testTopEarnersMatchFullSort() {
+        List<Employee> employees = randomEmployees(500, 42);
+
+        SalaryAggregates aggregates = SalaryAggregates.of(employees);
+
+        assertEquals(sortedTopNames(employees, 10), aggregates.getTopEarnerNames());
+        assertEquals(employees.stream().mapToInt(Employee::getSalary).max().getAsInt(), aggregates.getMax());
+        assertEquals(employees.stream().mapToInt(Employee::getSalary).min().getAsInt(), aggregates.getMin());
+        assertEquals(employees.stream().mapToInt(Employee::getSalary).average().getAsDouble(), aggregates.getAverage(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Incremental adds and removes agree with a rebuild")
+    void testIncrementalUpdatesMatchRebuild() {
+        List<Employee> employees = new ArrayList<>(randomEmployees(50, 7));
+        SalaryAggregates aggregates = SalaryAggregates.of(employees);
+
+        for (Employee added : randomEmployees(60, 8).subList(50, 60)) {
+            employees.add(added);
+            aggregates = aggregates.withAdded(added);
+        }
+        for (int i = 0; i < 20; i++) {
+            Employee removed = employees.remove(i);
+            aggregates = aggregates.withRemoved(removed, List.copyOf(employees));
+        }
+
+        SalaryAggregates rebuilt = SalaryAggregates.of(employees);
+        assertEquals(rebuilt.getTopEarnerNames(), aggregates.getTopEarnerNames());
+        assertEquals(rebuilt.getCount(), aggregates.getCount());
+        assertEquals(rebuilt.getMax(), aggregates.getMax());
+        assertEquals(rebuilt.getMin(), aggregates.getMin());
+        assertEquals(rebuilt.getAverage(), aggregates.getAverage(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Empty list yields zeroed aggregates")
+    void testEmpty() {
+        SalaryAggregates aggregates = SalaryAggregates.of(List.of());
+
+        assertEquals(0, aggregates.getMax());
+        assertEquals(List.of(), aggregates.getTopEarnerNames());
+    }
+}
@@ -0,0 +1,116 @@
+package com.reliaquest.api;
+
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.index.SalarySketch;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.SalaryStatistics;
+import com.reliaquest.api.model.SalarySummary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalarySketchTest {
+
+    private static final String[] TITLES = {"Developer", "Manager", "Designer", null};
+
+    private static List<Employee> randomEmployees(int count, long seed) {
+        Random random = new Random(seed);
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Employee("id-" + i, "Employee " + i, 20000 + (int) Math.abs(random.nextGaussian() * 80000), 30, TITLES[random.nextInt(TITLES.length)], i + "@example.com"))
+                .toList();
+    }
+
+    // the value at rank floor(q * (n - 1)) of the sorted salaries
+    private static int exactQuantile(int[] sorted, double q) {
+        return sorted[(int) Math.floor(q * (sorted.length - 1))];
+    }
+
+    @Test
+    @DisplayName("Percentiles are within the relative accuracy of the exact ones; count, min, max, mean and stddev are exact")
+    void testAccuracy() {
+        int[] salaries = new Random(1).ints(10_000, -50_000, 2_000_000).toArray();
+        SalarySketch.Builder builder = new SalarySketch.Builder();
+        for (int salary : salaries) {
+            builder.add(salary);
+        }
+        SalarySketch sketch = builder.build();
+        int[] sorted = salaries.clone();
+        Arrays.sort(sorted);
+
+        for (double q : new double[]{0.01, 0.25, 0.5, 0.9, 0.99}) {
+            double exact = exactQuantile(sorted, q);
+            assertEquals(exact, sketch.quantile(q), Math.abs(exact) * SalarySketch.RELATIVE_ACCURACY + 1e-9, "q=" + q);
+        }
+        assertEquals(sorted[0], sketch.quantile(0));
+        assertEquals(sorted[sorted.length - 1], sketch.quantile(1));
+        assertEquals(10_000, sketch.getCount());
+        double mean = IntStream.of(salaries).average().getAsDouble();
+        assertEquals(mean, sketch.getMean(), 1e-6);
+        double variance = IntStream.of(salaries).mapToDouble(s -> (s - mean) * (s - mean)).sum() / salaries.length;
+        assertEquals(Math.sqrt(variance), sketch.getStandardDeviation(), 1e-3);
+    }
+
+    @Test
+    @DisplayName("Removing values gives the same sketch figures as never having added them")
+    void testRemoval() {
+        SalarySketch sketch = SalarySketch.EMPTY;
+        SalarySketch.Builder kept = new SalarySketch.Builder();
+        for (int salary = 1000; salary <= 100_000; salary += 1000) {
+            sketch = sketch.with(salary);
+            if (salary % 3000 != 0) {
+                kept.add(salary);
+            }
+        }
+        for (int salary = 3000; salary <= 99_000; salary += 3000) {
+            assertFalse(sketch.needsRebuildWithout(salary));
+            sketch = sketch.without(salary);
+        }
+
+        assertEquals(kept.build().summarize(), sketch.summarize());
+        assertTrue(sketch.needsRebuildWithout(100_000));
+    }
+
+    @Test
+    @DisplayName("Statistics kept up to date through local writes match statistics of a freshly loaded list")
+    void testSnapshotStatisticsFollowWrites() {
+        List<Employee> expected = new ArrayList<>(randomEmployees(1000, 2));
+        EmployeeSnapshot snapshot = new EmployeeSnapshot(expected, Instant.EPOCH);
+        snapshot.getSalaryStatistics();
+
+        for (Employee employee : randomEmployees(1050, 3).subList(1000, 1050)) {
+            snapshot = snapshot.withAdded(employee);
+            expected.add(employee);
+        }
+        // every third employee, the extremes among them
+        for (int i = 0; i < 1050; i += 3) {
+            snapshot = snapshot.withRemoved("id-" + i);
+        }
+        expected.removeIf(e -> Integer.parseInt(e.getId().substring(3)) % 3 == 0);
+        SalaryStatistics statistics = snapshot.getSalaryStatistics();
+        SalaryStatistics fresh = new EmployeeSnapshot(expected, Instant.EPOCH).getSalaryStatistics();
+
+        assertEquals(fresh.byTitle().keySet(), statistics.byTitle().keySet());
+        assertSummaryEquals(fresh.overall(), statistics.overall());
+        fresh.byTitle().forEach((title, summary) -> assertSummaryEquals(summary, statistics.byTitle().get(title)));
+        assertEquals(expected.size(), statistics.overall().count());
+        assertEquals(expected.stream().filter(e -> "Manager".equals(e.getTitle())).count(), statistics.byTitle().get("Manager").count());
+    }
+
+    // running sums of squares can differ in the last bits from a fresh pass
+    private static void assertSummaryEquals(SalarySummary expected, SalarySummary actual) {
+        assertEquals(expected.count(), actual.count());
+        assertEquals(expected.min(), actual.min());
+        assertEquals(expected.max(), actual.max());
+        assertEquals(expected.mean(), actual.mean(), 1e-6);
+        assertEquals(expected.standardDeviation(), actual.standardDeviation(), 1e-3);
+        assertEquals(expected.percentiles(), actual.percentiles());
+    }
+}
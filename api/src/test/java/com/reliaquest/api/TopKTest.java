@@ -0,0 +1,82 @@
+package com.reliaquest.api;
+
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.index.EmployeeColumns;
+import com.reliaquest.api.index.ParallelScan;
+import com.reliaquest.api.index.TopK;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKTest {
+
+    // few distinct values, extremes included, so ties and overflow-prone keys decide the order
+    private static List<Employee> randomEmployees(int count, long seed) {
+        Random random = new Random(seed);
+        int[] salaries = {Integer.MIN_VALUE, -5, 0, 1, 50000, 50001, Integer.MAX_VALUE};
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Employee("id-" + i, "Employee " + i, salaries[random.nextInt(salaries.length)], 18 + random.nextInt(50), "Developer", i + "@example.com"))
+                .toList();
+    }
+
+    private static List<Employee> stableSortFirst(List<Employee> employees, EmployeeQuery.Sort order, int k) {
+        Comparator<Employee> byKey = Comparator.comparingInt(order.bySalary() ? Employee::getSalary : Employee::getAge);
+        return employees.stream().sorted(order.descending() ? byKey.reversed() : byKey).limit(k).toList();
+    }
+
+    @Test
+    @DisplayName("Selection matches the first K of a stable sort, in every order and for K past the list size")
+    void testMatchesStableSort() {
+        List<Employee> employees = randomEmployees(700, 11);
+        Set<String> removed = IntStream.range(0, 700).filter(i -> i % 5 == 0).mapToObj(i -> "id-" + i).collect(Collectors.toSet());
+        EmployeeColumns columns = EmployeeColumns.of(employees).withRemovedAll(removed);
+        List<Employee> remaining = columns.asList();
+
+        for (EmployeeQuery.Sort order : EmployeeQuery.Sort.values()) {
+            for (int k : new int[]{1, 3, 10, 64, 65, 559, 560, 5000}) {
+                List<Employee> selected = Arrays.stream(TopK.select(columns, order, k, ParallelScan.SEQUENTIAL)).mapToObj(columns::employee).toList();
+                assertEquals(stableSortFirst(remaining, order, k), selected, order + " k=" + k);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Ranges selected in parallel merge to the sequential selection")
+    void testParallelSelection() {
+        EmployeeColumns columns = EmployeeColumns.of(randomEmployees(50_000, 12));
+        ParallelScan parallel = new ParallelScan(1000, 4);
+        try {
+            for (EmployeeQuery.Sort order : EmployeeQuery.Sort.values()) {
+                assertArrayEquals(TopK.select(columns, order, 300, ParallelScan.SEQUENTIAL), TopK.select(columns, order, 300, parallel), order.toString());
+            }
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("The precomputed top earners and the heap selection agree on either side of the top ten")
+    void testSnapshotRanking() {
+        List<Employee> employees = randomEmployees(200, 13);
+        EmployeeSnapshot snapshot = new EmployeeSnapshot(employees, Instant.EPOCH);
+
+        for (int k : new int[]{1, 10, 11, 200, 201}) {
+            List<Employee> expected = stableSortFirst(employees, EmployeeQuery.Sort.SALARY_DESC, k);
+            assertEquals(expected, snapshot.ranked(EmployeeQuery.Sort.SALARY_DESC, k), "k=" + k);
+            assertEquals(expected.stream().map(Employee::getName).toList(), snapshot.rankedNames(EmployeeQuery.Sort.SALARY_DESC, k), "k=" + k);
+        }
+        assertEquals(stableSortFirst(employees, EmployeeQuery.Sort.AGE_ASC, 5), snapshot.ranked(EmployeeQuery.Sort.AGE_ASC, 5));
+    }
+}
@@ -0,0 +1,114 @@
+package com.reliaquest.api;
+
+import com.reliaquest.api.client.AdaptiveRateLimiter;
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.exception.EmployeeServiceUnavailableException;
+import com.reliaquest.api.service.UpstreamFanOut;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamFanOutTest {
+
+    private final UpstreamFanOut fanOut = new UpstreamFanOut(3, 1);
+
+    @AfterEach
+    void tearDown() {
+        fanOut.shutdown();
+    }
+
+    @Test
+    @DisplayName("Never runs more lookups at once than the configured parallelism")
+    void testBoundedParallelism() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<Integer> keys = IntStream.range(0, 30).boxed().toList();
+
+        Map<Integer, Integer> results = fanOut.fetchAll(keys, key -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            return key % 5 == 0 ? null : key * 2;
+        });
+
+        assertEquals(24, results.size());
+        assertEquals(14, results.get(7));
+        assertTrue(maxInFlight.get() <= 3, "max in flight " + maxInFlight.get());
+    }
+
+    @Test
+    @DisplayName("Not found leaves the key out; an outage stops further lookups and is rethrown")
+    void testNotFoundAndFailFast() {
+        Map<String, String> results = fanOut.fetchAll(List.of("a", "b"), key -> {
+            if (key.equals("b")) {
+                throw new EmployeeNotFoundException("not found");
+            }
+            return key;
+        });
+        assertEquals(Map.of("a", "a"), results);
+
+        AtomicInteger calls = new AtomicInteger();
+        List<Integer> keys = IntStream.range(0, 100).boxed().toList();
+        assertThrows(EmployeeServiceUnavailableException.class, () -> fanOut.fetchAll(keys, key -> {
+            calls.incrementAndGet();
+            throw new EmployeeServiceUnavailableException("rate limited");
+        }));
+        assertTrue(calls.get() < keys.size(), "calls " + calls.get());
+    }
+
+    @Test
+    @DisplayName("Lookups don't queue behind bulk writes, which have a pool of their own")
+    void testWritesDontStarveLookups() throws Exception {
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch releaseWrite = new CountDownLatch(1);
+        CompletableFuture<Map<Integer, Integer>> write = CompletableFuture.supplyAsync(() -> fanOut.writeAll(List.of(1, 2), key -> {
+            writeStarted.countDown();
+            await(releaseWrite);
+            return key;
+        }));
+        assertTrue(writeStarted.await(5, TimeUnit.SECONDS));
+
+        // the only write thread is stuck, yet lookups go straight through
+        assertEquals(Map.of("a", "a"), fanOut.fetchAll(List.of("a"), key -> key));
+        assertFalse(write.isDone());
+
+        releaseWrite.countDown();
+        assertEquals(Map.of(1, 1, 2, 2), write.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Tasks run at the submitting thread's rate-limit priority")
+    void testPriorityPropagated() {
+        List<Integer> keys = IntStream.range(0, 6).boxed().toList();
+
+        Map<Integer, AdaptiveRateLimiter.Priority> background = AdaptiveRateLimiter.inBackground(
+                () -> fanOut.writeAll(keys, key -> AdaptiveRateLimiter.currentPriority()));
+        Map<Integer, AdaptiveRateLimiter.Priority> interactive = fanOut.fetchAll(keys, key -> AdaptiveRateLimiter.currentPriority());
+
+        assertEquals(Set.of(AdaptiveRateLimiter.Priority.BACKGROUND), Set.copyOf(background.values()));
+        assertEquals(Set.of(AdaptiveRateLimiter.Priority.INTERACTIVE), Set.copyOf(interactive.values()));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
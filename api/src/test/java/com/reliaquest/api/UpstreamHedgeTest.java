@@ -0,0 +1,125 @@
+package com.reliaquest.api;
+
+import com.reliaquest.api.client.AdaptiveRateLimiter;
+import com.reliaquest.api.exception.EmployeeServiceUnavailableException;
+import com.reliaquest.api.service.UpstreamHedge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamHedgeTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UpstreamHedge hedge = new UpstreamHedge(true, 0.95, Duration.ofMillis(20), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        hedge.shutdown();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double hedges(String outcome) {
+        return meterRegistry.get("employee.upstream.hedge.requests").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    @DisplayName("A fast read is not hedged")
+    void testFastReadNotHedged() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("ok", hedge.execute(() -> {
+            calls.incrementAndGet();
+            return "ok";
+        }));
+        assertEquals(1, calls.get());
+        assertEquals(0, hedges("sent"));
+    }
+
+    @Test
+    @DisplayName("A slow read is hedged and the faster answer wins")
+    void testSlowReadHedged() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = hedge.execute(() -> {
+            if (calls.incrementAndGet() == 1) {
+                sleep(1000);
+                return "primary";
+            }
+            return "hedge";
+        });
+
+        assertEquals("hedge", result);
+        assertEquals(1, hedges("sent"));
+        assertEquals(1, hedges("won"));
+    }
+
+    @Test
+    @DisplayName("A failing primary is covered by a successful hedge")
+    void testHedgeCoversFailure() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = hedge.execute(() -> {
+            if (calls.incrementAndGet() == 1) {
+                sleep(100);
+                throw new EmployeeServiceUnavailableException("reset by peer");
+            }
+            sleep(200);
+            return "hedge";
+        });
+
+        assertEquals("hedge", result);
+    }
+
+    @Test
+    @DisplayName("When both fail the primary's failure is rethrown")
+    void testBothFail() {
+        AtomicInteger calls = new AtomicInteger();
+
+        EmployeeServiceUnavailableException ex = assertThrows(EmployeeServiceUnavailableException.class, () -> hedge.execute(() -> {
+            int call = calls.incrementAndGet();
+            sleep(call == 1 ? 100 : 10);
+            throw new EmployeeServiceUnavailableException("call " + call);
+        }));
+        assertEquals("call 1", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("The primary keeps the caller's priority; the hedge runs in the background")
+    void testPriorities() {
+        AtomicInteger calls = new AtomicInteger();
+        AdaptiveRateLimiter.Priority[] seen = new AdaptiveRateLimiter.Priority[2];
+
+        hedge.execute(() -> {
+            int call = calls.incrementAndGet();
+            seen[call - 1] = AdaptiveRateLimiter.currentPriority();
+            sleep(call == 1 ? 300 : 0);
+            return call;
+        });
+
+        assertEquals(AdaptiveRateLimiter.Priority.INTERACTIVE, seen[0]);
+        assertEquals(AdaptiveRateLimiter.Priority.BACKGROUND, seen[1]);
+    }
+
+    @Test
+    @DisplayName("A disabled hedge runs the read on the calling thread")
+    void testDisabled() {
+        UpstreamHedge disabled = new UpstreamHedge(false, 0.95, Duration.ofMillis(20), new SimpleMeterRegistry());
+        Thread caller = Thread.currentThread();
+
+        assertSame(caller, disabled.execute(Thread::currentThread));
+        disabled.shutdown();
+    }
+}
@@ -0,0 +1,31 @@
+package com.reliaquest.api;
+
+import com.reliaquest.api.client.UpstreamTimeouts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamTimeoutsTest {
+
+    private static final Duration LOOKUP = Duration.ofSeconds(2);
+    private static final Duration LIST = Duration.ofSeconds(10);
+    private static final Duration WRITE = Duration.ofSeconds(5);
+
+    private final UpstreamTimeouts timeouts = new UpstreamTimeouts(LOOKUP, LIST, WRITE);
+
+    @Test
+    @DisplayName("Requests are timed by endpoint category")
+    void testCategories() {
+        assertEquals(LOOKUP, timeouts.forRequest(HttpMethod.GET, URI.create("http://localhost:8112/api/v1/employee/4a3a170b-22cd-4ac2-aad1-9bb5b34a1507")));
+        assertEquals(LIST, timeouts.forRequest(HttpMethod.GET, URI.create("http://localhost:8112/api/v1/employee")));
+        assertEquals(LIST, timeouts.forRequest(HttpMethod.GET, URI.create("http://localhost:8112/api/v1/employee?limit=100&cursor=MTA")));
+        assertEquals(LIST, timeouts.forRequest(HttpMethod.GET, URI.create("http://localhost:8112/api/v1/employee/changes?since=%223f2a-17%22")));
+        assertEquals(WRITE, timeouts.forRequest(HttpMethod.POST, URI.create("http://localhost:8112/api/v1/employee/bulk")));
+        assertEquals(WRITE, timeouts.forRequest(HttpMethod.DELETE, URI.create("http://localhost:8112/api/v1/employee")));
+    }
+}
@@ -0,0 +1,97 @@
+package com.reliaquest.api;
+
+import com.reliaquest.api.client.EmployeeJsonReader;
+import com.reliaquest.api.client.WebClientEmployeeTransport;
+import com.reliaquest.api.model.EmployeePage;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebClientEmployeeTransportTest {
+
+    private static final String PAGE = """
+            {"data":[{"id":"1","employee_name":"John Doe","employee_salary":50000,"employee_age":30,
+             "employee_title":"Developer","employee_email":"john.doe@example.com"}],"next_cursor":"MQ"}
+            """;
+
+    private final CountDownLatch respond = new CountDownLatch(1);
+    private HttpServer server;
+    private WebClientEmployeeTransport transport;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/page", exchange -> {
+            await(respond);
+            byte[] body = PAGE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/failing", exchange -> {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.start();
+        transport = new WebClientEmployeeTransport(WebClient.create("http://localhost:" + server.getAddress().getPort()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        respond.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("getAsync returns before upstream answers and decodes off the calling thread")
+    void testGetAsyncReleasesCaller() throws Exception {
+        AtomicReference<Thread> decodedOn = new AtomicReference<>();
+
+        CompletableFuture<EmployeePage> page = transport.getAsync("/page", body -> {
+            decodedOn.set(Thread.currentThread());
+            return EmployeeJsonReader.readEmployeePage(body);
+        });
+
+        // upstream is still holding the response, yet the caller is free
+        assertFalse(page.isDone());
+        respond.countDown();
+
+        assertEquals("MQ", page.get(5, TimeUnit.SECONDS).nextCursor());
+        assertNotEquals(Thread.currentThread(), decodedOn.get());
+    }
+
+    @Test
+    @DisplayName("getAsync fails with the RestTemplate exception types")
+    void testGetAsyncTranslatesErrors() {
+        CompletableFuture<EmployeePage> page = transport.getAsync("/failing", EmployeeJsonReader::readEmployeePage);
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> page.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(HttpServerErrorException.ServiceUnavailable.class, failure.getCause());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.reliaquest.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.client.EmployeeJsonReader;
+import com.reliaquest.api.model.Employee;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decoding a {@code GET /api/v1/employee} body, before ({@link #mapTree}) and after ({@link #streamingReader}) the
+ * switch to {@link EmployeeJsonReader}. Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm}, the bytes
+ * allocated per decode; allocation is measured here rather than in unit tests since it varies with the JVM and GC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class EmployeeParsingBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private byte[] body;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        body = SyntheticEmployees.toUpstreamJson(SyntheticEmployees.generate(size, 42));
+        objectMapper = new ObjectMapper();
+    }
+
+    @Benchmark
+    public List<Employee> streamingReader() throws IOException {
+        return EmployeeJsonReader.readEmployeeList(new ByteArrayInputStream(body));
+    }
+
+    /**
+     * The decode path the API module used before {@link EmployeeJsonReader}: a {@code Map} tree copied into employees.
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<Employee> mapTree() throws IOException {
+        Map<String, Object> response = objectMapper.readValue(body, Map.class);
+        List<Map<String, Object>> data = (List<Map<String, Object>>) response.get("data");
+        return data.stream()
+                .map(row -> new Employee(
+                        (String) row.get("id"),
+                        (String) row.get("employee_name"),
+                        (Integer) row.get("employee_salary"),
+                        (Integer) row.get("employee_age"),
+                        (String) row.get("employee_title"),
+                        (String) row.get("employee_email")))
+                .toList();
+    }
+}
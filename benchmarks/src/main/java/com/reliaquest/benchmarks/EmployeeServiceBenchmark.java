@@ -0,0 +1,92 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.api.cache.EmployeeLookupCache;
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.cache.EmployeeSnapshotCache;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.model.EmployeeQuery;
+import com.reliaquest.api.service.EmployeeApiClient;
+import com.reliaquest.api.service.EmployeeserviceImpl;
+import com.reliaquest.api.service.UpstreamFanOut;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Read paths of {@link EmployeeserviceImpl} on an already loaded snapshot, plus the cost of building a snapshot, which
+ * every upstream reload pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class EmployeeServiceBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    @Param({"an", "smith", "tiger nixon 42"})
+    private String query;
+
+    private List<Employee> employees;
+    private EmployeeserviceImpl service;
+
+    @Setup
+    public void setUp() {
+        employees = SyntheticEmployees.generate(size, 42);
+        EmployeeApiClient upstream = new EmployeeApiClient(null, null, null, new SimpleMeterRegistry()) {
+            @Override
+            public List<Employee> callEmployeeListApi(String url) {
+                return employees;
+            }
+        };
+        Duration never = Duration.ofDays(1);
+        service = new EmployeeserviceImpl(
+                upstream,
+                new EmployeeSnapshotCache(never, never, never),
+                new EmployeeLookupCache(1, never, never, new SimpleMeterRegistry()),
+                new UpstreamFanOut(1, 1));
+        service.getAllEmployees();
+    }
+
+    @Benchmark
+    public List<Object> searchByName() {
+        return service.getEmployeesByNameSearch(query);
+    }
+
+    @Benchmark
+    public Integer highestSalary() {
+        return service.getHighestSalaryOfEmployees();
+    }
+
+    @Benchmark
+    public List<String> topTenEarners() {
+        return service.getTop10HighestEarningEmployeeNames();
+    }
+
+    // not precomputed: a bounded heap over the age column
+    @Benchmark
+    public List<Employee> youngestThousand() {
+        return service.getRankedEmployees(EmployeeQuery.Sort.AGE_ASC, 1000);
+    }
+
+    @Benchmark
+    public EmployeeSnapshot buildSnapshot() {
+        return new EmployeeSnapshot(employees, Instant.EPOCH);
+    }
+}
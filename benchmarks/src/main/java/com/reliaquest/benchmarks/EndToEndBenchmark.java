@@ -0,0 +1,88 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.api.ApiApplication;
+import com.reliaquest.api.model.Employee;
+import com.reliaquest.api.service.EmployeeApiClient;
+import com.reliaquest.server.ServerApplication;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs the mock server (port 8112, rate limiting off) and the API (random port) in the benchmark JVM and measures
+ * full HTTP round trips: through the API, which answers from its snapshot cache, and straight to the mock server
+ * through the API's upstream client, which is what every cache reload costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class EndToEndBenchmark {
+
+    private static final String UPSTREAM_URL = "http://localhost:8112/api/v1/employee";
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    private ConfigurableApplicationContext server;
+    private ConfigurableApplicationContext api;
+    private EmployeeApiClient upstream;
+    private HttpClient http;
+    private HttpRequest allEmployees;
+    private HttpRequest search;
+
+    @Setup
+    public void setUp() {
+        server = new SpringApplicationBuilder(ServerApplication.class)
+                .run("--spring.config.name=mock-server", "--mock.employees.max=" + size);
+        api = new SpringApplicationBuilder(ApiApplication.class).run("--server.port=0");
+        upstream = api.getBean(EmployeeApiClient.class);
+
+        String baseUrl =
+                "http://localhost:" + api.getEnvironment().getProperty("local.server.port") + "/api/v1/employee";
+        http = HttpClient.newHttpClient();
+        allEmployees = HttpRequest.newBuilder(URI.create(baseUrl)).build();
+        search = HttpRequest.newBuilder(URI.create(baseUrl + "/search/an")).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        api.close();
+        server.close();
+    }
+
+    @Benchmark
+    public int getAllEmployeesThroughApi() throws IOException, InterruptedException {
+        return http.send(allEmployees, HttpResponse.BodyHandlers.ofByteArray()).body().length;
+    }
+
+    @Benchmark
+    public int searchThroughApi() throws IOException, InterruptedException {
+        return http.send(search, HttpResponse.BodyHandlers.ofByteArray()).body().length;
+    }
+
+    @Benchmark
+    public List<Employee> upstreamListFetch() {
+        return upstream.callEmployeeListApi(UPSTREAM_URL);
+    }
+}
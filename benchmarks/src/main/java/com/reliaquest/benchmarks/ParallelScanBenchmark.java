@@ -0,0 +1,89 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.index.EmployeeColumns;
+import com.reliaquest.api.index.EmployeeNameIndex;
+import com.reliaquest.api.index.ParallelScan;
+import com.reliaquest.api.index.SalaryAggregates;
+import com.reliaquest.api.model.Employee;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sequential against fork-join scans of the same snapshot, to find where {@code employee.parallel.threshold} should
+ * sit on a given host: run with the default parallelism (one worker per core) and compare the two modes per size.
+ * On a single core the parallel mode falls back to the sequential scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ParallelScanBenchmark {
+
+    @Param({"10000", "30000", "100000", "300000", "1000000"})
+    private int size;
+
+    @Param({"sequential", "parallel"})
+    private String mode;
+
+    private List<Employee> employees;
+    private EmployeeColumns columns;
+    private EmployeeNameIndex nameIndex;
+    private ParallelScan scan;
+
+    @Setup
+    public void setUp() {
+        employees = SyntheticEmployees.generate(size, 42);
+        columns = EmployeeColumns.of(employees);
+        // threshold 1: every size takes the mode under test
+        scan = mode.equals("parallel") ? new ParallelScan(1, 0) : ParallelScan.SEQUENTIAL;
+        nameIndex = EmployeeNameIndex.of(columns, scan);
+    }
+
+    @TearDown
+    public void tearDown() {
+        scan.shutdown();
+    }
+
+    @Benchmark
+    public SalaryAggregates salaryAggregates() {
+        return SalaryAggregates.of(columns, SalaryAggregates.DEFAULT_TOP_K, scan);
+    }
+
+    @Benchmark
+    public SalaryAggregates topThousand() {
+        return SalaryAggregates.of(columns, 1000, scan);
+    }
+
+    // two characters: scans every name
+    @Benchmark
+    public List<Employee> shortNameScan() {
+        return nameIndex.search("an");
+    }
+
+    // trigram candidates checked against the name buffer
+    @Benchmark
+    public List<Employee> trigramSearch() {
+        return nameIndex.search("smith");
+    }
+
+    @Benchmark
+    public EmployeeSnapshot buildSnapshot() {
+        return new EmployeeSnapshot(employees, Instant.EPOCH, null, scan);
+    }
+}
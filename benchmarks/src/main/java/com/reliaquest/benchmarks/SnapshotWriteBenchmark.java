@@ -0,0 +1,87 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.index.EmployeeColumns;
+import com.reliaquest.api.model.Employee;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost per create of applying local writes to a freshly loaded snapshot: a run of {@value #CREATES} single-employee
+ * appends, as a burst of {@code POST /api/v1/employee} calls between two reloads would make. Reported per create.
+ * {@code names=distinct} swaps the synthetic names, drawn from a few hundred trigrams, for random letters, so the name
+ * index holds tens of thousands of trigrams the way a directory of real names does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SnapshotWriteBenchmark {
+
+    private static final int CREATES = 100;
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    @Param({"synthetic", "distinct"})
+    private String names;
+
+    private EmployeeColumns columns;
+    private EmployeeSnapshot snapshot;
+    private List<Employee> created;
+
+    @Setup
+    public void setUp() {
+        List<Employee> employees = SyntheticEmployees.generate(size + CREATES, 42);
+        if (names.equals("distinct")) {
+            Random random = new Random(42);
+            employees.forEach(employee -> employee.setName(randomWord(random) + " " + randomWord(random)));
+        }
+        columns = EmployeeColumns.of(employees.subList(0, size));
+        snapshot = new EmployeeSnapshot(employees.subList(0, size), Instant.EPOCH);
+        created = employees.subList(size, size + CREATES);
+    }
+
+    private static String randomWord(Random random) {
+        return random.ints(8, 'a', 'z' + 1)
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                .toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CREATES)
+    public EmployeeColumns columnsAppend() {
+        EmployeeColumns appended = columns;
+        for (Employee employee : created) {
+            appended = appended.withAdded(employee);
+        }
+        return appended;
+    }
+
+    // columns plus the name index and salary aggregates a snapshot keeps up to date
+    @Benchmark
+    @OperationsPerInvocation(CREATES)
+    public EmployeeSnapshot snapshotAppend() {
+        EmployeeSnapshot appended = snapshot;
+        for (Employee employee : created) {
+            appended = appended.withAdded(employee);
+        }
+        return appended;
+    }
+}
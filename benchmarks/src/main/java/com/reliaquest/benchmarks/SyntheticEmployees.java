@@ -0,0 +1,97 @@
+package com.reliaquest.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.reliaquest.api.model.Employee;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Deterministic employee data shaped like the mock server's, so runs are comparable across machines and commits.
+ */
+public final class SyntheticEmployees {
+
+    private static final String[] FIRST_NAMES = {
+        "Tiger", "Jill", "Bill", "Anna", "Johnson", "Maria", "Hannah", "Omar", "Chen", "Priya", "Lukas", "Sofia",
+        "Mateo", "Aisha", "Kenji", "Olga"
+    };
+    private static final String[] LAST_NAMES = {
+        "Nixon",
+        "Jenkins",
+        "Bob",
+        "Smith",
+        "Anderson",
+        "Garcia",
+        "Kowalski",
+        "Haddad",
+        "Wang",
+        "Patel",
+        "Schmidt",
+        "Rossi",
+        "Lopez",
+        "Okafor",
+        "Tanaka",
+        "Ivanova"
+    };
+    private static final String[] TITLES = {
+        "Software Engineer",
+        "Financial Advisor",
+        "Documentation Engineer",
+        "Sales Administrator",
+        "Product Manager",
+        "Data Analyst",
+        "Principal Consultant",
+        "Marketing Specialist"
+    };
+
+    private SyntheticEmployees() {}
+
+    public static List<Employee> generate(int count, long seed) {
+        Random random = new Random(seed);
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                    String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                    return new Employee(
+                            new UUID(random.nextLong(), random.nextLong()).toString(),
+                            first + " " + last + " " + i,
+                            random.nextInt(30000, 500000),
+                            random.nextInt(16, 70),
+                            TITLES[random.nextInt(TITLES.length)],
+                            (first + "." + last + i).toLowerCase() + "@company.com");
+                })
+                .toList();
+    }
+
+    /**
+     * Serializes employees the way {@code GET /api/v1/employee} on the mock server does.
+     */
+    public static byte[] toUpstreamJson(List<Employee> employees) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(employees.size() * 200);
+        try (JsonGenerator json = new JsonFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("data");
+            for (Employee employee : employees) {
+                json.writeStartObject();
+                json.writeStringField("id", employee.getId());
+                json.writeStringField("employee_name", employee.getName());
+                json.writeNumberField("employee_salary", employee.getSalary());
+                json.writeNumberField("employee_age", employee.getAge());
+                json.writeStringField("employee_title", employee.getTitle());
+                json.writeStringField("employee_email", employee.getEmail());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeStringField("status", "Successfully processed request.");
+            json.writeEndObject();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+}
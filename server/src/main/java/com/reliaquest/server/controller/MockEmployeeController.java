@@ -3,6 +3,7 @@ package com.reliaquest.server.controller;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChanges;
 import com.reliaquest.server.model.Response;
 import com.reliaquest.server.service.MockEmployeeService;
 import jakarta.validation.Valid;
@@ -17,7 +18,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/v1/employee")
@@ -26,9 +29,37 @@ public class MockEmployeeController {
 
     private final MockEmployeeService mockEmployeeService;
 
+    /*
+     * The full list answers 304 without a body when If-None-Match still matches its ETag; the tag is taken before the
+     * employees are read. The tag describes the whole list, so pages are always served in full and carry no ETag.
+     */
     @GetMapping()
-    public Response<List<MockEmployee>> getEmployees() {
-        return Response.handledWith(mockEmployeeService.getMockEmployees());
+    public Response<List<MockEmployee>> getEmployees(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        if (page == null && limit == null && cursor == null) {
+            if (request.checkNotModified(mockEmployeeService.getETag())) {
+                return null;
+            }
+            return Response.handledWith(mockEmployeeService.getMockEmployees());
+        }
+        final var employeePage = mockEmployeeService.getMockEmployees(page, limit, cursor);
+        return Response.handledWith(employeePage.employees(), employeePage.nextCursor());
+    }
+
+    /*
+     * Change feed for readers keeping their own copy of the list: since is a list ETag or the version returned by the
+     * previous call. 410 Gone means the feed no longer reaches back that far, or the server restarted; reload the list.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<Response<MockEmployeeChanges>> getChanges(@RequestParam String since) {
+        return mockEmployeeService
+                .getChanges(since)
+                .map(changes -> ResponseEntity.ok(Response.handledWith(changes)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.GONE)
+                        .body(Response.error("Changes since " + since + " are no longer available")));
     }
 
     @GetMapping("/{id}")
@@ -48,4 +79,17 @@ public class MockEmployeeController {
     public Response<Boolean> deleteEmployee(@Valid @RequestBody DeleteMockEmployeeInput input) {
         return Response.handledWith(mockEmployeeService.delete(input));
     }
+
+    /*
+     * Bulk endpoints answer with one Response per entry, in request order.
+     */
+    @PostMapping("/bulk")
+    public Response<List<Response<MockEmployee>>> createEmployees(@RequestBody List<CreateMockEmployeeInput> inputs) {
+        return Response.handledWith(mockEmployeeService.createAll(inputs));
+    }
+
+    @DeleteMapping("/bulk")
+    public Response<List<Response<Boolean>>> deleteEmployees(@RequestBody List<DeleteMockEmployeeInput> inputs) {
+        return Response.handledWith(mockEmployeeService.deleteAll(inputs));
+    }
 }
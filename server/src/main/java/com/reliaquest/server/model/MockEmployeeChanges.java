@@ -0,0 +1,16 @@
+package com.reliaquest.server.model;
+
+import java.util.List;
+
+/*
+ * Creates and deletes applied after a change-feed version, oldest first, and the version they bring a reader up to.
+ */
+public record MockEmployeeChanges(List<Change> changes, String version) {
+
+    public record Change(Type type, MockEmployee employee) {}
+
+    public enum Type {
+        CREATED,
+        DELETED
+    }
+}
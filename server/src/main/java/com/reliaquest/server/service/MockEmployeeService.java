@@ -4,11 +4,15 @@ import com.reliaquest.server.config.ServerConfiguration;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import com.reliaquest.server.model.MockEmployeePage;
+import com.reliaquest.server.model.Response;
+import jakarta.validation.Validator;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,16 +24,82 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class MockEmployeeService {
 
+    public static final int DEFAULT_PAGE_LIMIT = 100;
+    public static final int MAX_PAGE_LIMIT = 1000;
+    public static final int MAX_BULK_SIZE = 1000;
+
     private final Faker faker;
 
-    @Getter
-    private final List<MockEmployee> mockEmployees;
+    private final Validator validator;
+
+    private final MockEmployeeStore mockEmployeeStore;
+
+    // keeps versions from before a restart, when the store is seeded afresh, from matching
+    private final String storeEpoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    /*
+     * Entity tag for the employee list (any page of it, since pages are only compared against themselves). Without
+     * its quotes it is also the list's position in the change feed, see getChanges.
+     */
+    public String getETag() {
+        return "\"" + position(mockEmployeeStore.version()) + "\"";
+    }
+
+    /*
+     * Everything created or deleted since the given change-feed version (a list ETag, or the version of an earlier
+     * call), or empty when the feed can't bring that version up to date and the reader has to reload the list.
+     * Since a list's ETag is taken before its employees, replaying from it may repeat writes the list already shows.
+     */
+    public Optional<MockEmployeeChanges> getChanges(@NonNull String since) {
+        final var position = since.startsWith("\"") && since.endsWith("\"") && since.length() > 1
+                ? since.substring(1, since.length() - 1)
+                : since;
+        final var separator = position.lastIndexOf('-');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid version: " + since);
+        }
+        if (!storeEpoch.equals(position.substring(0, separator))) {
+            return Optional.empty();
+        }
+        final long version;
+        try {
+            version = Long.parseLong(position.substring(separator + 1));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid version: " + since);
+        }
+        return mockEmployeeStore
+                .changesSince(version)
+                .map(changes -> new MockEmployeeChanges(changes.changes(), position(changes.version())));
+    }
+
+    public List<MockEmployee> getMockEmployees() {
+        return mockEmployeeStore.findAll();
+    }
+
+    /*
+     * Either page (zero-based, with limit) or cursor (from a previous page's nextCursor) selects the slice; the
+     * cursor is cheaper since it seeks straight to the position instead of walking past earlier pages.
+     */
+    public MockEmployeePage getMockEmployees(Integer page, Integer limit, String cursor) {
+        final int pageLimit = limit == null ? DEFAULT_PAGE_LIMIT : limit;
+        if (pageLimit < 1 || pageLimit > MAX_PAGE_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_LIMIT);
+        }
+        if (page != null && cursor != null) {
+            throw new IllegalArgumentException("page and cursor cannot be combined");
+        }
+        if (page != null && page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        final var slice = cursor != null
+                ? mockEmployeeStore.findAfter(decodeCursor(cursor), pageLimit)
+                : mockEmployeeStore.findFrom(page == null ? 0 : (long) page * pageLimit, pageLimit);
+        return new MockEmployeePage(
+                slice.employees(), slice.lastSequence() == null ? null : encodeCursor(slice.lastSequence()));
+    }
 
     public Optional<MockEmployee> findById(@NonNull UUID uuid) {
-        return mockEmployees.stream()
-                .filter(mockEmployee -> Objects.nonNull(mockEmployee.getId())
-                        && mockEmployee.getId().equals(uuid))
-                .findFirst();
+        return mockEmployeeStore.findById(uuid);
     }
 
     public MockEmployee create(@NonNull CreateMockEmployeeInput input) {
@@ -37,22 +107,76 @@ public class MockEmployeeService {
                 ServerConfiguration.EMAIL_TEMPLATE.formatted(
                         faker.twitter().userName().toLowerCase()),
                 input);
-        mockEmployees.add(mockEmployee);
+        mockEmployeeStore.add(mockEmployee);
         log.debug("Added employee: {}", mockEmployee);
         return mockEmployee;
     }
 
+    /*
+     * Each input is validated and created on its own; one bad entry fails only its own slot in the result.
+     */
+    public List<Response<MockEmployee>> createAll(@NonNull List<CreateMockEmployeeInput> inputs) {
+        checkBulkSize(inputs);
+        return inputs.stream()
+                .map(input -> {
+                    final var error = firstViolation(input);
+                    return error == null ? Response.handledWith(create(input)) : Response.<MockEmployee>error(error);
+                })
+                .toList();
+    }
+
+    public List<Response<Boolean>> deleteAll(@NonNull List<DeleteMockEmployeeInput> inputs) {
+        checkBulkSize(inputs);
+        return inputs.stream()
+                .map(input -> {
+                    final var error = firstViolation(input);
+                    return error == null ? Response.handledWith(delete(input)) : Response.<Boolean>error(error);
+                })
+                .toList();
+    }
+
     public boolean delete(@NonNull DeleteMockEmployeeInput input) {
-        final var mockEmployee = mockEmployees.stream()
-                .filter(employee -> Objects.nonNull(employee.getName())
-                        && employee.getName().equalsIgnoreCase(input.getName()))
-                .findFirst();
+        final var mockEmployee = mockEmployeeStore.removeByName(input.getName());
         if (mockEmployee.isPresent()) {
-            mockEmployees.remove(mockEmployee.get());
             log.debug("Removed employee: {}", mockEmployee.get());
             return true;
         }
 
         return false;
     }
+
+    private String firstViolation(Object input) {
+        if (input == null) {
+            return "Entry must not be null";
+        }
+        return validator.validate(input).stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static void checkBulkSize(List<?> inputs) {
+        if (inputs.isEmpty() || inputs.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_BULK_SIZE + " entries are required");
+        }
+    }
+
+    private String position(long version) {
+        return storeEpoch + "-" + version;
+    }
+
+    private static String encodeCursor(long sequence) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(Long.toString(sequence).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
 }
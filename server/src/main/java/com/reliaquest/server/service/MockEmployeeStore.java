@@ -0,0 +1,175 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import lombok.NonNull;
+
+/**
+ * Thread-safe employee store. Employees are kept in insertion order under a monotonically increasing sequence number,
+ * with hash indexes from id and from lower-cased name to that sequence. Reads never lock; writes are serialized so the
+ * indexes always agree with each other. Every write bumps {@link #version()} and is kept in a change log of the last
+ * {@code changeLogSize} writes, keyed by the version it produced.
+ */
+public class MockEmployeeStore {
+
+    public static final int DEFAULT_CHANGE_LOG_SIZE = 1000;
+
+    private final ConcurrentSkipListMap<Long, MockEmployee> bySequence = new ConcurrentSkipListMap<>();
+    private final Map<UUID, Long> sequenceById = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Long>> sequencesByName = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, MockEmployeeChanges.Change> changeLog = new ConcurrentSkipListMap<>();
+    private final int changeLogSize;
+    private long nextSequence;
+    private volatile long version;
+
+    public MockEmployeeStore(@NonNull Collection<MockEmployee> mockEmployees) {
+        this(mockEmployees, DEFAULT_CHANGE_LOG_SIZE);
+    }
+
+    public MockEmployeeStore(@NonNull Collection<MockEmployee> mockEmployees, int changeLogSize) {
+        if (changeLogSize < 1) {
+            throw new IllegalArgumentException("changeLogSize must be positive");
+        }
+        this.changeLogSize = changeLogSize;
+        mockEmployees.forEach(this::add);
+    }
+
+    public List<MockEmployee> findAll() {
+        return List.copyOf(bySequence.values());
+    }
+
+    /**
+     * Up to {@code limit} employees added after the one with sequence {@code afterSequence}, exclusive.
+     */
+    public Slice findAfter(long afterSequence, int limit) {
+        return slice(bySequence.tailMap(afterSequence, false), 0, limit);
+    }
+
+    /**
+     * Up to {@code limit} employees starting at position {@code offset}; walks past the skipped entries.
+     */
+    public Slice findFrom(long offset, int limit) {
+        return slice(bySequence, offset, limit);
+    }
+
+    public Optional<MockEmployee> findById(@NonNull UUID uuid) {
+        final var sequence = sequenceById.get(uuid);
+        return sequence == null ? Optional.empty() : Optional.ofNullable(bySequence.get(sequence));
+    }
+
+    public int size() {
+        return bySequence.size();
+    }
+
+    /**
+     * Changes whenever an employee is added or removed. Read it before the employees it should describe: a write in
+     * between then makes the version look older than the data, never newer.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * The writes that took the store from version {@code since} to the current one, oldest first; empty if the change
+     * log no longer reaches back that far, or {@code since} is not a version this store has had.
+     */
+    public Optional<Changes> changesSince(long since) {
+        // log entries are in place before the version that covers them is published
+        final long current = version;
+        if (since < 0 || since > current) {
+            return Optional.empty();
+        }
+        final var changes =
+                new ArrayList<>(changeLog.subMap(since, false, current, true).values());
+        // the oldest entries may have been trimmed while we were copying
+        if (changes.size() != current - since) {
+            return Optional.empty();
+        }
+        return Optional.of(new Changes(changes, current));
+    }
+
+    public synchronized void add(@NonNull MockEmployee mockEmployee) {
+        final var sequence = nextSequence++;
+        bySequence.put(sequence, mockEmployee);
+        if (Objects.nonNull(mockEmployee.getId())) {
+            sequenceById.put(mockEmployee.getId(), sequence);
+        }
+        if (Objects.nonNull(mockEmployee.getName())) {
+            sequencesByName
+                    .computeIfAbsent(nameKey(mockEmployee.getName()), ignored -> new ConcurrentSkipListSet<>())
+                    .add(sequence);
+        }
+        record(MockEmployeeChanges.Type.CREATED, mockEmployee);
+    }
+
+    /**
+     * Removes the earliest added employee with the given name, ignoring case.
+     */
+    public synchronized Optional<MockEmployee> removeByName(@NonNull String name) {
+        final var key = nameKey(name);
+        final var sequences = sequencesByName.get(key);
+        if (sequences == null || sequences.isEmpty()) {
+            return Optional.empty();
+        }
+        final var sequence = sequences.pollFirst();
+        if (sequences.isEmpty()) {
+            sequencesByName.remove(key);
+        }
+        final var mockEmployee = bySequence.remove(sequence);
+        if (Objects.nonNull(mockEmployee.getId())) {
+            sequenceById.remove(mockEmployee.getId(), sequence);
+        }
+        record(MockEmployeeChanges.Type.DELETED, mockEmployee);
+        return Optional.of(mockEmployee);
+    }
+
+    // versions are contiguous, so exactly one entry falls out of the log per write once it is full
+    private void record(MockEmployeeChanges.Type type, MockEmployee mockEmployee) {
+        final var next = version + 1;
+        changeLog.put(next, new MockEmployeeChanges.Change(type, mockEmployee));
+        changeLog.remove(next - changeLogSize);
+        version = next;
+    }
+
+    private static Slice slice(NavigableMap<Long, MockEmployee> from, long skip, int limit) {
+        final var employees = new ArrayList<MockEmployee>(Math.min(limit, from.size()));
+        final var entries = from.entrySet().iterator();
+        for (long skipped = 0; skipped < skip && entries.hasNext(); skipped++) {
+            entries.next();
+        }
+        Long lastSequence = null;
+        while (employees.size() < limit && entries.hasNext()) {
+            final var entry = entries.next();
+            employees.add(entry.getValue());
+            lastSequence = entry.getKey();
+        }
+        return new Slice(employees, entries.hasNext() ? lastSequence : null);
+    }
+
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A run of employees in insertion order; {@code lastSequence} is set only when more employees follow it.
+     */
+    public record Slice(List<MockEmployee> employees, Long lastSequence) {}
+
+    /**
+     * Writes in the order they were applied, and the version the last of them produced.
+     */
+    public record Changes(List<MockEmployeeChanges.Change> changes, long version) {}
+}
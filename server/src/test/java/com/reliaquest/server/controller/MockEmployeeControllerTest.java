@@ -0,0 +1,115 @@
+package com.reliaquest.server.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.service.MockEmployeeStore;
+import jakarta.validation.Validation;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class MockEmployeeControllerTest {
+
+    private MockEmployeeStore store;
+    private MockMvc mockMvc;
+
+    private static MockEmployee employee(String name) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(50000)
+                .age(30)
+                .title("Engineer")
+                .email("employee@company.com")
+                .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        store = new MockEmployeeStore(List.of(employee("Jane Doe"), employee("John Doe")));
+        final var service = new MockEmployeeService(
+                new Faker(Locale.ROOT),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                store);
+        mockMvc = MockMvcBuilders.standaloneSetup(new MockEmployeeController(service))
+                .setControllerAdvice(new MockEmployeeControllerAdvice())
+                .build();
+    }
+
+    @Test
+    @DisplayName("If-None-Match with the current ETag answers 304 without a body, until the list changes")
+    void testConditionalList() throws Exception {
+        final var etag = mockMvc.perform(get("/api/v1/employee"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        final var notModified = mockMvc.perform(get("/api/v1/employee").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn();
+        assertEquals(0, notModified.getResponse().getContentLength());
+
+        store.add(employee("New Hire"));
+        final var changed = mockMvc.perform(get("/api/v1/employee").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        assertNotEquals(etag, changed.getHeader(HttpHeaders.ETAG));
+        assertTrue(changed.getContentAsString().contains("New Hire"));
+    }
+
+    @Test
+    @DisplayName("A stale or foreign ETag gets the full list")
+    void testMismatchedETag() throws Exception {
+        mockMvc.perform(get("/api/v1/employee").header(HttpHeaders.IF_NONE_MATCH, "\"0-0\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Pages ignore If-None-Match, so one page's tag replayed on the next still gets that page")
+    void testPagesNotConditional() throws Exception {
+        final var firstPage = mockMvc.perform(get("/api/v1/employee").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].employee_name").value("Jane Doe"))
+                .andReturn()
+                .getResponse();
+        assertNull(firstPage.getHeader(HttpHeaders.ETAG));
+
+        final var listETag = mockMvc.perform(get("/api/v1/employee"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/v1/employee")
+                        .param("page", "1")
+                        .param("limit", "1")
+                        .header(HttpHeaders.IF_NONE_MATCH, listETag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].employee_name").value("John Doe"));
+    }
+
+    @Test
+    @DisplayName("Changes past the retained log answer 410 Gone; malformed versions 400")
+    void testChangesGone() throws Exception {
+        mockMvc.perform(get("/api/v1/employee/changes").param("since", "0-1"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.error").exists());
+        mockMvc.perform(get("/api/v1/employee/changes").param("since", "garbage"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,101 @@
+package com.reliaquest.server.service;
+
+import static com.reliaquest.server.service.MockEmployeeStoreTest.employee;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import jakarta.validation.Validation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MockEmployeeServiceTest {
+
+    private List<MockEmployee> seeded;
+    private MockEmployeeStore store;
+    private MockEmployeeService service;
+
+    @BeforeEach
+    void setUp() {
+        seeded = IntStream.range(0, 10).mapToObj(i -> employee("Employee " + i)).toList();
+        store = new MockEmployeeStore(seeded);
+        service = new MockEmployeeService(
+                new Faker(Locale.ROOT),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                store);
+    }
+
+    @Test
+    @DisplayName("Cursor paging neither skips nor repeats employees across inserts and deletes")
+    void testCursorPagingAcrossWrites() {
+        final var firstPage = service.getMockEmployees(null, 4, null);
+        assertEquals(seeded.subList(0, 4), firstPage.employees());
+        assertNotNull(firstPage.nextCursor());
+
+        // one deleted from the page already read, one from the pages still to come, two added at the end
+        store.removeByName("Employee 1");
+        store.removeByName("Employee 6");
+        final var added = List.of(employee("Employee 10"), employee("Employee 11"));
+        added.forEach(store::add);
+
+        final var rest = new ArrayList<MockEmployee>();
+        var cursor = firstPage.nextCursor();
+        while (cursor != null) {
+            final var page = service.getMockEmployees(null, 4, cursor);
+            rest.addAll(page.employees());
+            cursor = page.nextCursor();
+        }
+
+        final var expected = new ArrayList<>(seeded.subList(4, 10));
+        expected.remove(seeded.get(6));
+        expected.addAll(added);
+        assertEquals(expected, rest);
+    }
+
+    @Test
+    @DisplayName("Offset pages cover the list; the last page has no cursor")
+    void testOffsetPaging() {
+        assertEquals(seeded.subList(4, 8), service.getMockEmployees(1, 4, null).employees());
+        final var last = service.getMockEmployees(2, 4, null);
+        assertEquals(seeded.subList(8, 10), last.employees());
+        assertNull(last.nextCursor());
+        assertTrue(service.getMockEmployees(3, 4, null).employees().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Bad limits, negative pages, page with cursor and malformed cursors are rejected")
+    void testPagingArguments() {
+        assertThrows(IllegalArgumentException.class, () -> service.getMockEmployees(null, 0, null));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> service.getMockEmployees(null, MockEmployeeService.MAX_PAGE_LIMIT + 1, null));
+        assertThrows(IllegalArgumentException.class, () -> service.getMockEmployees(-1, 4, null));
+        assertThrows(IllegalArgumentException.class, () -> service.getMockEmployees(0, 4, "MQ"));
+        assertThrows(IllegalArgumentException.class, () -> service.getMockEmployees(null, 4, "not a cursor!"));
+    }
+
+    @Test
+    @DisplayName("Change-feed versions are list ETags; other epochs are gone, malformed versions rejected")
+    void testChanges() {
+        final var etag = service.getETag();
+        final var hire = employee("New Hire");
+        store.add(hire);
+
+        final var changes = service.getChanges(etag).orElseThrow();
+        assertEquals(
+                List.of(hire),
+                changes.changes().stream().map(change -> change.employee()).toList());
+        assertEquals(service.getETag(), "\"" + changes.version() + "\"");
+        assertTrue(service.getChanges(changes.version()).orElseThrow().changes().isEmpty());
+
+        assertTrue(service.getChanges("0-1").isEmpty(), "a version from before a restart");
+        final var epoch = changes.version().substring(0, changes.version().lastIndexOf('-'));
+        assertThrows(IllegalArgumentException.class, () -> service.getChanges(epoch + "-x"));
+        assertThrows(IllegalArgumentException.class, () -> service.getChanges("nodash"));
+    }
+}
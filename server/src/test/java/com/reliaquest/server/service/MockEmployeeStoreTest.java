@@ -0,0 +1,148 @@
+package com.reliaquest.server.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MockEmployeeStoreTest {
+
+    private static final String SHARED_NAME = "Shared Name";
+
+    static MockEmployee employee(String name) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(50000)
+                .age(30)
+                .title("Engineer")
+                .email(name.replace(' ', '.') + "@company.com")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Concurrent adds and removes leave the id and name indexes agreeing with the list")
+    void testConcurrentWritesKeepIndexesConsistent() throws Exception {
+        final var store = new MockEmployeeStore(List.of());
+        final int threads = 4;
+        final int perThread = 500;
+        final var start = new CountDownLatch(1);
+        final ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+        try {
+            final var writers = new ArrayList<Future<List<MockEmployee>>>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                writers.add(pool.submit(() -> {
+                    start.await();
+                    final var kept = new ArrayList<MockEmployee>();
+                    for (int i = 0; i < perThread; i++) {
+                        // every tenth employee shares its name with the other threads' tenth employees
+                        final var added = employee(i % 10 == 0 ? SHARED_NAME : "Employee " + thread + "-" + i);
+                        store.add(added);
+                        if (i % 10 != 0 && i % 2 == 1) {
+                            assertEquals(
+                                    added,
+                                    store.removeByName(added.getName().toUpperCase())
+                                            .orElseThrow());
+                        } else if (i % 10 != 0) {
+                            kept.add(added);
+                        }
+                    }
+                    return kept;
+                }));
+            }
+            // reads never lock; they must not fail or see an employee the id index doesn't know
+            final Future<?> reader = pool.submit(() -> {
+                start.await();
+                while (writers.stream().anyMatch(writer -> !writer.isDone())) {
+                    for (final var employee : store.findAfter(-1, 50).employees()) {
+                        store.findById(employee.getId());
+                    }
+                }
+                return null;
+            });
+            start.countDown();
+
+            final var kept = new ArrayList<MockEmployee>();
+            for (final var writer : writers) {
+                kept.addAll(writer.get(30, TimeUnit.SECONDS));
+            }
+            reader.get(30, TimeUnit.SECONDS);
+
+            final int shared = threads * perThread / 10;
+            final var all = store.findAll();
+            assertEquals(kept.size() + shared, all.size());
+            assertEquals(all.size(), store.size());
+            for (final var employee : all) {
+                assertEquals(employee, store.findById(employee.getId()).orElseThrow());
+            }
+            for (final var employee : kept) {
+                assertEquals(employee, store.removeByName(employee.getName()).orElseThrow());
+                assertTrue(store.findById(employee.getId()).isEmpty());
+            }
+            for (int i = 0; i < shared; i++) {
+                assertTrue(store.removeByName(SHARED_NAME).isPresent());
+            }
+            assertTrue(store.removeByName(SHARED_NAME).isEmpty());
+            assertEquals(0, store.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Removing by name takes the earliest added employee with that name, ignoring case")
+    void testRemoveByNameTakesEarliest() {
+        final var first = employee("Jane Doe");
+        final var second = employee("jane doe");
+        final var store = new MockEmployeeStore(List.of(first, employee("John Doe"), second));
+
+        assertEquals(first, store.removeByName("JANE DOE").orElseThrow());
+        assertEquals(second, store.removeByName("Jane Doe").orElseThrow());
+        assertTrue(store.removeByName("Jane Doe").isEmpty());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("The change feed answers from the trimmed log head onwards and not before it or past the present")
+    void testChangesSinceAroundTrimmedHead() {
+        final var store = new MockEmployeeStore(List.of(), 3);
+        final var employees = new ArrayList<MockEmployee>();
+        for (int i = 0; i < 4; i++) {
+            employees.add(employee("Employee " + i));
+            store.add(employees.get(i));
+        }
+        store.removeByName("Employee 0");
+        // versions 1 to 5; the log keeps the writes that produced versions 3, 4 and 5
+        assertEquals(5, store.version());
+
+        final var fromHead = store.changesSince(2).orElseThrow();
+        assertEquals(5, fromHead.version());
+        assertEquals(
+                List.of(
+                        new MockEmployeeChanges.Change(MockEmployeeChanges.Type.CREATED, employees.get(2)),
+                        new MockEmployeeChanges.Change(MockEmployeeChanges.Type.CREATED, employees.get(3)),
+                        new MockEmployeeChanges.Change(MockEmployeeChanges.Type.DELETED, employees.get(0))),
+                fromHead.changes());
+        assertEquals(2, store.changesSince(3).orElseThrow().changes().size());
+
+        final var current = store.changesSince(5).orElseThrow();
+        assertTrue(current.changes().isEmpty());
+        assertEquals(5, current.version());
+
+        assertTrue(store.changesSince(1).isEmpty(), "the write producing version 2 was trimmed");
+        assertTrue(store.changesSince(0).isEmpty());
+        assertTrue(store.changesSince(6).isEmpty(), "a version the store hasn't reached");
+        assertTrue(store.changesSince(-1).isEmpty());
+    }
+}